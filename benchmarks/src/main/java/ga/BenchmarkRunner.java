@@ -0,0 +1,34 @@
+package ga;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Runs JMH with the command-line options given, adding the gc
+ * profiler for allocation rates and JSON results in {@code target/jmh-result.json} unless the
+ * command line chooses its own result file, so runs of different builds can be compared.
+ */
+public final class BenchmarkRunner {
+  private BenchmarkRunner() {}
+
+  /**
+   * Run the benchmarks.
+   *
+   * @param args standard JMH command-line options
+   * @throws RunnerException if a benchmark fails
+   * @throws CommandLineOptionException if the options cannot be parsed
+   */
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    CommandLineOptions cli = new CommandLineOptions(args);
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class);
+    if (!cli.getResult().hasValue()) options.result("target/jmh-result.json");
+    if (!cli.getResultFormat().hasValue()) options.resultFormat(ResultFormatType.JSON);
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,95 @@
+package ga;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Throughput of the engine's hot paths: a whole generation, fitness evaluation, parent selection,
+ * breeding with self-adaptive mutation, and the diversity query. Lives in package {@code ga} to
+ * reach the package-private operators the generation loop uses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvolutionBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int populationSize;
+
+  @Param({"64", "1024"})
+  public int chromosomeLength;
+
+  @Param({"0.001", "0.01"})
+  public double mutationRate;
+
+  private GeneticAlgorithm ga;
+  private SelectionStrategy tournament;
+  private Individual parent1;
+  private Individual parent2;
+  private Individual child1;
+  private Individual child2;
+  private SplitMix64 random;
+  private int draw;
+
+  /** Build a seeded engine and let it leave the random initial state. */
+  @Setup(Level.Trial)
+  public void setUp() {
+    ga = new GeneticAlgorithm(populationSize, chromosomeLength, mutationRate, 0.7, 42L);
+    ga.setDoubleBuffered(true);
+    ga.run(5);
+    tournament = new TournamentSelection(3);
+    tournament.prepare(ga.currentStore(), populationSize, new SplitMix64(1));
+    Individual[] best = ga.getBestIndividuals(2);
+    parent1 = best[0];
+    parent2 = best[1];
+    child1 = new Individual(chromosomeLength);
+    child2 = new Individual(chromosomeLength);
+    random = new SplitMix64(7);
+  }
+
+  /** One full generation: selection, crossover, mutation, evaluation and statistics. */
+  @Benchmark
+  public void evolveOneGeneration() {
+    ga.evolveOneGeneration();
+  }
+
+  /** OneMax evaluation of a single individual. */
+  @Benchmark
+  public void evaluateFitness() {
+    parent1.evaluateFitness();
+  }
+
+  /** One tournament draw of size 3 over the population's fitness array. */
+  @Benchmark
+  public int tournamentSelection() {
+    return tournament.select(random, draw++ & 1);
+  }
+
+  /** Crossover plus self-adaptive mutation of one pair of children. */
+  @Benchmark
+  public void breedPair(Blackhole bh) {
+    ga.breedPair(parent1, parent2, child1, child2, random, null, null, 0, true);
+    bh.consume(child1);
+  }
+
+  /** Diversity derived from the incrementally maintained allele counts. */
+  @Benchmark
+  public double getDiversity() {
+    return ga.getDiversity();
+  }
+}
@@ -0,0 +1,67 @@
+package gui;
+
+import ga.GeneticAlgorithm;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of rendering the population grid, painted headlessly into an offscreen image. Lives in
+ * package {@code gui} to call {@link PopulationPanel#paintComponent} directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PopulationPanelBenchmark {
+
+  @Param({"50", "200"})
+  public int populationSize;
+
+  @Param({"64", "256"})
+  public int chromosomeLength;
+
+  private PopulationPanel panel;
+  private BufferedImage image;
+  private Graphics2D graphics;
+
+  /** Lay out a panel for an evolved population and allocate the target image. */
+  @Setup(Level.Trial)
+  public void setUp() {
+    GeneticAlgorithm ga = new GeneticAlgorithm(populationSize, chromosomeLength, 0.01, 0.7, 42L);
+    ga.run(5);
+    panel = new PopulationPanel();
+    panel.setPopulation(ga.getPopulation());
+    panel.setSize(panel.getPreferredSize());
+    image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_ARGB);
+    graphics = image.createGraphics();
+  }
+
+  /** Paint the whole grid once. */
+  @Benchmark
+  public BufferedImage paintComponent() {
+    panel.paintComponent(graphics);
+    return image;
+  }
+
+  /** Release the image's graphics context. */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    graphics.dispose();
+  }
+}
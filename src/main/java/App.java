@@ -49,7 +49,7 @@ public class App {
                           new Timer(
                               500,
                               e -> {
-                                ga.evolveOneGeneration(popPanel);
+                                ga.evolveOneGeneration();
                                 popPanel.setPopulation(ga.getPopulation());
                                 statsPanel.refresh();
                                 histPanel.addFitness(ga.getAverageFitness());
@@ -64,7 +64,7 @@ public class App {
                     }
                   },
                   () -> {
-                    ga.evolveOneGeneration(popPanel);
+                    ga.evolveOneGeneration();
                     popPanel.setPopulation(ga.getPopulation());
                     statsPanel.refresh();
                     histPanel.addFitness(ga.getAverageFitness());
@@ -76,7 +76,8 @@ public class App {
                     histPanel.clear();
                   });
 
-          ga.addControlPanel(controlPanel);
+          ga.addEvolutionListener(popPanel);
+          ga.addEvolutionListener(controlPanel);
 
           new MainWindow(ga, popPanel, statsPanel, histPanel, controlPanel);
         });
@@ -0,0 +1,394 @@
+package cli;
+
+import ga.CheckpointListener;
+import ga.FitnessFunction;
+import ga.GenerationStats;
+import ga.GeneticAlgorithm;
+import ga.Individual;
+import ga.RankSelection;
+import ga.RouletteSelection;
+import ga.RunLogger;
+import ga.SelectionStrategy;
+import ga.StochasticUniversalSampling;
+import ga.TerminationCondition;
+import ga.TournamentSelection;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Headless entry point that runs a {@link GeneticAlgorithm} to a termination condition and reports
+ * the result. It only uses the engine package, so no AWT or Swing class is ever loaded: startup is
+ * fast, memory stays small and it runs on machines without a display. {@code App} remains the GUI
+ * entry point.
+ *
+ * <p>Options are given as {@code --name value} or {@code --name=value}, or as {@code name=value}
+ * lines of a properties file passed with {@code --config}; command-line options override the file.
+ * Run with {@code --help} for the list.
+ */
+public final class CommandLineRunner {
+  static final String USAGE =
+      """
+      usage: java -cp <jar> cli.CommandLineRunner [options]
+
+      Engine:
+        --population N          population size (default 100)
+        --length N              chromosome length (default 64)
+        --mutation-rate R       global mutation rate, 0 for self-adaptive rates (default 0.01)
+        --crossover-rate R      crossover probability (default 0.7)
+        --seed N                master seed (default: random)
+        --threads N             worker threads (default 1)
+        --selection S           tournament[:k], sus, roulette, rank-linear[:s], rank-exp[:c]
+        --hall-of-fame K        keep the K fittest distinct chromosomes and report them
+        --resume FILE           continue from a checkpoint instead of a fresh population; it
+                                defines population, length, rates and seed, so those options
+                                cannot be given with it
+
+      Termination (the first one met stops the run; default --generations 100):
+        --generations N         evolve N generations
+        --target F              stop at best fitness F
+        --stagnation N          stop after N generations without improvement
+        --time T                wall-clock budget, e.g. 90s, 5m, 1h or PT10M
+        --evaluations N         fitness evaluation budget
+
+      Output:
+        --progress N            print statistics every N generations
+        --log FILE              stream per-generation records to FILE
+        --log-format F          csv or binary (default csv)
+        --checkpoint FILE       save a checkpoint to FILE
+        --checkpoint-every N    generations between checkpoints (default 100)
+        --output FILE           write the results to FILE instead of standard output
+        --config FILE           read options from a properties file
+        --help                  show this text
+      """;
+
+  private static final Set<String> OPTIONS =
+      Set.of(
+          "population",
+          "length",
+          "mutation-rate",
+          "crossover-rate",
+          "seed",
+          "threads",
+          "selection",
+          "hall-of-fame",
+          "resume",
+          "generations",
+          "target",
+          "stagnation",
+          "time",
+          "evaluations",
+          "progress",
+          "log",
+          "log-format",
+          "checkpoint",
+          "checkpoint-every",
+          "output",
+          "config",
+          "help");
+
+  /** Engine settings restored from a checkpoint, which {@code --resume} cannot override. */
+  private static final List<String> CHECKPOINTED =
+      List.of("population", "length", "mutation-rate", "crossover-rate", "seed");
+
+  private CommandLineRunner() {}
+
+  /**
+   * Run from the command line. Exits with status 2 for invalid options and 1 for I/O failures.
+   *
+   * @param args options as described by {@code --help}
+   */
+  public static void main(String[] args) {
+    try {
+      run(args, System.out);
+    } catch (IllegalArgumentException e) {
+      System.err.println("error: " + e.getMessage());
+      System.err.print(USAGE);
+      System.exit(2);
+    } catch (IOException e) {
+      System.err.println("error: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Parse the options, run the engine and report the results.
+   *
+   * @param args options as described by {@code --help}
+   * @param out stream for progress lines and, without {@code --output}, the results
+   * @return the engine after the run, or null if only help was requested
+   * @throws IOException if a file cannot be read or written
+   * @throws IllegalArgumentException if an option is unknown or invalid
+   */
+  static GeneticAlgorithm run(String[] args, PrintStream out) throws IOException {
+    Properties options = parse(args);
+    if (options.containsKey("help")) {
+      out.print(USAGE);
+      return null;
+    }
+
+    GeneticAlgorithm ga;
+    if (options.containsKey("resume")) {
+      for (String name : CHECKPOINTED) {
+        if (options.containsKey(name)) {
+          throw new IllegalArgumentException(
+              "--" + name + " cannot be combined with --resume; the checkpoint defines it");
+        }
+      }
+      ga = GeneticAlgorithm.loadCheckpoint(path(options, "resume"), FitnessFunction.oneMax());
+    } else if (options.containsKey("seed")) {
+      ga =
+          new GeneticAlgorithm(
+              intOption(options, "population", 100),
+              intOption(options, "length", 64),
+              doubleOption(options, "mutation-rate", 0.01),
+              doubleOption(options, "crossover-rate", 0.7),
+              longOption(options, "seed", 0));
+    } else {
+      ga =
+          new GeneticAlgorithm(
+              intOption(options, "population", 100),
+              intOption(options, "length", 64),
+              doubleOption(options, "mutation-rate", 0.01),
+              doubleOption(options, "crossover-rate", 0.7));
+    }
+    ga.setParallelism(intOption(options, "threads", 1));
+    if (options.containsKey("selection")) {
+      ga.setSelectionStrategy(selection(options.getProperty("selection")));
+    }
+    if (options.containsKey("hall-of-fame")) {
+      ga.setHallOfFameSize(intOption(options, "hall-of-fame", 0));
+    }
+    if (options.containsKey("checkpoint")) {
+      ga.addEvolutionListener(
+          new CheckpointListener(
+              path(options, "checkpoint"), intOption(options, "checkpoint-every", 100)));
+    }
+
+    RunLogger logger = null;
+    if (options.containsKey("log")) {
+      RunLogger.Format format =
+          switch (options.getProperty("log-format", "csv").toLowerCase(Locale.ROOT)) {
+            case "csv" -> RunLogger.Format.CSV;
+            case "binary" -> RunLogger.Format.BINARY;
+            default -> throw new IllegalArgumentException("--log-format must be csv or binary");
+          };
+      logger = new RunLogger(path(options, "log"), format, 1 << 16);
+      ga.addEvolutionListener(logger);
+    }
+
+    long start = System.nanoTime();
+    int progress = intOption(options, "progress", 0);
+    try {
+      ga.runUntil(
+          termination(options),
+          progress,
+          (progress > 0) ? stats -> out.println(progressLine(stats)) : null);
+    } finally {
+      if (logger != null) {
+        ga.removeEvolutionListener(logger);
+        logger.close();
+        if (logger.getDropped() > 0) {
+          out.println("log records dropped: " + logger.getDropped());
+        }
+      }
+    }
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    if (options.containsKey("checkpoint")) ga.saveCheckpoint(path(options, "checkpoint"));
+
+    if (options.containsKey("output")) {
+      try (Writer w = Files.newBufferedWriter(path(options, "output"), StandardCharsets.UTF_8)) {
+        writeResults(ga, elapsedMillis, w);
+      }
+    } else {
+      Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+      writeResults(ga, elapsedMillis, w);
+      w.flush();
+    }
+    return ga;
+  }
+
+  /** Collect options from the config file, if any, and then from the arguments. */
+  static Properties parse(String[] args) throws IOException {
+    Properties cli = new Properties();
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if (!arg.startsWith("--")) throw new IllegalArgumentException("Unexpected argument " + arg);
+      String name = arg.substring(2);
+      String value;
+      int eq = name.indexOf('=');
+      if (eq >= 0) {
+        value = name.substring(eq + 1);
+        name = name.substring(0, eq);
+      } else if (name.equals("help")) {
+        value = "true";
+      } else if (i + 1 < args.length) {
+        value = args[++i];
+      } else {
+        throw new IllegalArgumentException("Missing value for --" + name);
+      }
+      checkName(name);
+      cli.setProperty(name, value);
+    }
+
+    Properties options = new Properties();
+    if (cli.containsKey("config")) {
+      try (Reader r = Files.newBufferedReader(path(cli, "config"), StandardCharsets.UTF_8)) {
+        options.load(r);
+      }
+      for (String name : options.stringPropertyNames()) checkName(name);
+    }
+    options.putAll(cli);
+    return options;
+  }
+
+  private static void checkName(String name) {
+    if (!OPTIONS.contains(name)) throw new IllegalArgumentException("Unknown option --" + name);
+  }
+
+  /** Combine every termination option given; without any, run 100 generations. */
+  static TerminationCondition termination(Properties options) {
+    TerminationCondition condition = null;
+    if (options.containsKey("generations")) {
+      condition =
+          or(condition, TerminationCondition.generations(intOption(options, "generations", 0)));
+    }
+    if (options.containsKey("target")) {
+      condition =
+          or(condition, TerminationCondition.targetFitness(doubleOption(options, "target", 0)));
+    }
+    if (options.containsKey("stagnation")) {
+      condition =
+          or(condition, TerminationCondition.stagnation(intOption(options, "stagnation", 0)));
+    }
+    if (options.containsKey("time")) {
+      condition =
+          or(condition, TerminationCondition.wallClock(duration(options.getProperty("time"))));
+    }
+    if (options.containsKey("evaluations")) {
+      condition =
+          or(
+              condition,
+              TerminationCondition.evaluationBudget(longOption(options, "evaluations", 0)));
+    }
+    return (condition != null) ? condition : TerminationCondition.generations(100);
+  }
+
+  private static TerminationCondition or(TerminationCondition a, TerminationCondition b) {
+    return (a == null) ? b : a.or(b);
+  }
+
+  /** Parse a selection scheme such as {@code tournament:5} or {@code rank-exp:0.98}. */
+  static SelectionStrategy selection(String spec) {
+    String[] parts = spec.toLowerCase(Locale.ROOT).split(":", 2);
+    String arg = (parts.length > 1) ? parts[1] : null;
+    try {
+      return switch (parts[0]) {
+        case "tournament" -> new TournamentSelection((arg != null) ? Integer.parseInt(arg) : 3);
+        case "sus" -> new StochasticUniversalSampling();
+        case "roulette" -> new RouletteSelection();
+        case "rank-linear" -> RankSelection.linear((arg != null) ? Double.parseDouble(arg) : 1.5);
+        case "rank-exp" ->
+            RankSelection.exponential((arg != null) ? Double.parseDouble(arg) : 0.99);
+        default -> throw new IllegalArgumentException("Unknown selection " + spec);
+      };
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Bad selection parameter in " + spec);
+    }
+  }
+
+  /** Parse {@code 90}, {@code 90s}, {@code 500ms}, {@code 5m}, {@code 1h} or an ISO duration. */
+  static Duration duration(String text) {
+    String t = text.trim().toLowerCase(Locale.ROOT);
+    try {
+      if (t.startsWith("pt")) return Duration.parse(t);
+      if (t.endsWith("ms"))
+        return Duration.ofMillis(Long.parseLong(t.substring(0, t.length() - 2)));
+      long amount = Long.parseLong(t.replaceAll("[smh]$", ""));
+      if (t.endsWith("h")) return Duration.ofHours(amount);
+      if (t.endsWith("m")) return Duration.ofMinutes(amount);
+      return Duration.ofSeconds(amount);
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Bad duration " + text);
+    }
+  }
+
+  private static String progressLine(GenerationStats s) {
+    return String.format(
+        Locale.ROOT,
+        "gen %d best %.4f mean %.4f sd %.4f rate %.5f",
+        s.generation(),
+        s.maxFitness(),
+        s.meanFitness(),
+        Math.sqrt(s.fitnessVariance()),
+        s.meanMutationRate());
+  }
+
+  /** Write the results as {@code name=value} lines. */
+  private static void writeResults(GeneticAlgorithm ga, long elapsedMillis, Writer w)
+      throws IOException {
+    w.write("generations=" + ga.getGeneration() + "\n");
+    w.write("evaluations=" + ga.getEvaluations() + "\n");
+    w.write("elapsedMillis=" + elapsedMillis + "\n");
+    w.write("seed=" + ga.getSeed() + "\n");
+    w.write("bestFitness=" + ga.getBestFitnessValue() + "\n");
+    w.write("meanFitness=" + ga.getAverageFitness() + "\n");
+    w.write("diversity=" + ga.getDiversity() + "\n");
+    w.write("best=" + bits(ga.getBestIndividuals(1)[0]) + "\n");
+    if (ga.getHallOfFame() != null) {
+      Individual[] hall = ga.getHallOfFame().getIndividuals();
+      for (int i = 0; i < hall.length; i++) {
+        w.write("hallOfFame." + i + "=" + hall[i].getFitnessValue() + " " + bits(hall[i]) + "\n");
+      }
+    }
+  }
+
+  private static String bits(Individual ind) {
+    StringBuilder sb = new StringBuilder(ind.getLength());
+    for (boolean gene : ind.getChromosome()) sb.append(gene ? '1' : '0');
+    return sb.toString();
+  }
+
+  private static Path path(Properties options, String name) {
+    return Path.of(options.getProperty(name));
+  }
+
+  private static int intOption(Properties options, String name, int fallback) {
+    long value = longOption(options, name, fallback);
+    try {
+      return Math.toIntExact(value);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("--" + name + " is out of range: " + value);
+    }
+  }
+
+  private static long longOption(Properties options, String name, long fallback) {
+    String value = options.getProperty(name);
+    if (value == null) return fallback;
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("--" + name + " expects an integer, got " + value);
+    }
+  }
+
+  private static double doubleOption(Properties options, String name, double fallback) {
+    String value = options.getProperty(name);
+    if (value == null) return fallback;
+    try {
+      return Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("--" + name + " expects a number, got " + value);
+    }
+  }
+}
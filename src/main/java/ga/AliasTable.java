@@ -0,0 +1,64 @@
+package ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Walker's alias table (in Vose's formulation) for drawing indices in proportion to non-negative
+ * weights in O(1) per draw after O(n) setup. The arrays are reused when the table is rebuilt for
+ * the same or a smaller number of weights.
+ */
+final class AliasTable {
+  private double[] probability = new double[0];
+  private int[] alias = new int[0];
+  private int[] small = new int[0];
+  private int[] large = new int[0];
+  private int n;
+
+  /**
+   * Rebuild the table. If every weight is zero all indices become equally likely.
+   *
+   * @param weights non-negative weights; only the first {@code n} are used
+   * @param n number of weights
+   */
+  void build(double[] weights, int n) {
+    this.n = n;
+    if (probability.length < n) {
+      probability = new double[n];
+      alias = new int[n];
+      small = new int[n];
+      large = new int[n];
+    }
+    double total = 0;
+    for (int i = 0; i < n; i++) total += weights[i];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int i = 0; i < n; i++) {
+      probability[i] = (total > 0) ? weights[i] * n / total : 1;
+      alias[i] = i;
+      if (probability[i] < 1) small[smallCount++] = i;
+      else large[largeCount++] = i;
+    }
+    while (smallCount > 0 && largeCount > 0) {
+      int s = small[--smallCount];
+      int l = large[--largeCount];
+      alias[s] = l;
+      probability[l] -= 1 - probability[s];
+      if (probability[l] < 1) small[smallCount++] = l;
+      else large[largeCount++] = l;
+    }
+    // Whatever is left is 1 up to rounding error.
+    while (largeCount > 0) probability[large[--largeCount]] = 1;
+    while (smallCount > 0) probability[small[--smallCount]] = 1;
+  }
+
+  /**
+   * Draw an index with probability proportional to its weight.
+   *
+   * @param r random stream
+   * @return index in {@code [0, n)}
+   */
+  int sample(RandomGenerator r) {
+    int i = r.nextInt(n);
+    return (r.nextDouble() < probability[i]) ? i : alias[i];
+  }
+}
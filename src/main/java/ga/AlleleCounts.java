@@ -0,0 +1,155 @@
+package ga;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Number of individuals carrying a one at each locus. The mean pairwise Hamming distance of a
+ * population follows exactly from these counts: locus {@code k} contributes {@code c_k (n - c_k)}
+ * differing pairs, so diversity costs O(L) once the counts are known instead of O(n² L).
+ */
+public final class AlleleCounts {
+  /** Loci per parallel counting task; a multiple of 64 so tasks never share a word. */
+  private static final int LOCI_PER_TASK = 64 * 64;
+
+  private final int[] ones;
+  private int individuals;
+
+  /**
+   * Create empty counts for chromosomes of the given length.
+   *
+   * @param length chromosome length
+   */
+  AlleleCounts(int length) {
+    this.ones = new int[length];
+  }
+
+  /**
+   * Count a whole population, splitting the loci across the pool when one is given.
+   *
+   * @param population individuals to count
+   * @param length chromosome length
+   * @param pool pool to count on, or null to count on the calling thread
+   * @return counts of the population
+   */
+  static AlleleCounts count(Individual[] population, int length, ForkJoinPool pool) {
+    AlleleCounts counts = new AlleleCounts(length);
+    if (pool == null || length <= LOCI_PER_TASK) {
+      for (Individual ind : population) counts.add(ind);
+    } else {
+      pool.invoke(counts.new CountTask(population, 0, BitChromosome.wordsFor(length)));
+      counts.individuals = population.length;
+    }
+    return counts;
+  }
+
+  /** Return an independent copy, for example to publish to another thread. */
+  AlleleCounts copy() {
+    AlleleCounts c = new AlleleCounts(ones.length);
+    System.arraycopy(ones, 0, c.ones, 0, ones.length);
+    c.individuals = individuals;
+    return c;
+  }
+
+  /** Reset every count to zero. */
+  void clear() {
+    Arrays.fill(ones, 0);
+    individuals = 0;
+  }
+
+  /** Add the genes of one individual, visiting only its set bits. */
+  void add(Individual ind) {
+    addWords(ind.bits(), 0, ind.bits().wordCount(), 1);
+    individuals++;
+  }
+
+  /** Remove the genes of one individual, for example before its genes are rewritten. */
+  void remove(Individual ind) {
+    addWords(ind.bits(), 0, ind.bits().wordCount(), -1);
+    individuals--;
+  }
+
+  /** Add counts gathered over a disjoint set of individuals. */
+  void addAll(AlleleCounts other) {
+    for (int k = 0; k < ones.length; k++) ones[k] += other.ones[k];
+    individuals += other.individuals;
+  }
+
+  private void addWords(BitChromosome c, int fromWord, int toWord, int delta) {
+    for (int w = fromWord; w < toWord; w++) {
+      long word = c.getWord(w);
+      int base = w << 6;
+      while (word != 0) {
+        ones[base + Long.numberOfTrailingZeros(word)] += delta;
+        word &= word - 1;
+      }
+    }
+  }
+
+  /** Return the chromosome length. */
+  public int getLength() {
+    return ones.length;
+  }
+
+  /** Return the number of individuals counted. */
+  public int getIndividuals() {
+    return individuals;
+  }
+
+  /**
+   * Return how many counted individuals carry a one at a locus.
+   *
+   * @param locus gene index
+   * @return number of ones
+   */
+  public int getOnes(int locus) {
+    return ones[locus];
+  }
+
+  /**
+   * Return the frequency of the one allele at a locus.
+   *
+   * @param locus gene index
+   * @return fraction of individuals carrying a one
+   */
+  public double getFrequency(int locus) {
+    return (double) ones[locus] / individuals;
+  }
+
+  /** Return the Hamming distance summed over all unordered pairs of counted individuals. */
+  public double totalPairwiseDistance() {
+    double total = 0;
+    for (int c : ones) total += (double) c * (individuals - c);
+    return total;
+  }
+
+  /** Return the mean pairwise Hamming distance normalized by the chromosome length. */
+  public double diversity() {
+    double n = individuals;
+    return totalPairwiseDistance() / ((n * (n - 1) / 2.0) * ones.length);
+  }
+
+  /** Fork/join task counting a range of words; tasks own disjoint loci so no merge is needed. */
+  private final class CountTask extends RecursiveAction {
+    private final Individual[] population;
+    private final int fromWord;
+    private final int toWord;
+
+    CountTask(Individual[] population, int fromWord, int toWord) {
+      this.population = population;
+      this.fromWord = fromWord;
+      this.toWord = toWord;
+    }
+
+    @Override
+    protected void compute() {
+      if (toWord - fromWord <= LOCI_PER_TASK / 64) {
+        for (Individual ind : population) addWords(ind.bits(), fromWord, toWord, 1);
+        return;
+      }
+      int mid = (fromWord + toWord) >>> 1;
+      invokeAll(new CountTask(population, fromWord, mid), new CountTask(population, mid, toWord));
+    }
+  }
+}
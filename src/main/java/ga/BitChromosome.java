@@ -0,0 +1,264 @@
+package ga;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-length bit string packed into 64-bit words. Gene {@code i} lives in bit {@code i & 63} of
+ * word {@code i >>> 6}; bits past the chromosome length in the last word are always zero so that
+ * word-level operations such as {@link Long#bitCount} can run without extra masking.
+ *
+ * <p>A chromosome either owns its words or is a view onto a slice of a larger array, such as the
+ * contiguous gene block of a {@link PopulationStore}.
+ */
+public final class BitChromosome {
+  private final long[] words;
+  private final int offset;
+  private final int wordCount;
+  private final int length;
+
+  /**
+   * Create a chromosome of the given length with every gene cleared.
+   *
+   * @param length number of genes
+   */
+  public BitChromosome(int length) {
+    this(new long[wordsFor(length)], 0, length);
+  }
+
+  /**
+   * Create a view onto {@code wordsFor(length)} words of a shared array.
+   *
+   * @param words backing array
+   * @param offset index of the first word of this chromosome
+   * @param length number of genes
+   */
+  BitChromosome(long[] words, int offset, int length) {
+    this.words = words;
+    this.offset = offset;
+    this.wordCount = wordsFor(length);
+    this.length = length;
+  }
+
+  /**
+   * Create a packed chromosome holding the same genes as a boolean array.
+   *
+   * @param genes genes to pack
+   * @return packed chromosome
+   */
+  public static BitChromosome fromBooleans(boolean[] genes) {
+    BitChromosome c = new BitChromosome(genes.length);
+    for (int i = 0; i < genes.length; i++) if (genes[i]) c.words[i >>> 6] |= 1L << i;
+    return c;
+  }
+
+  /**
+   * Number of 64-bit words needed to hold the given number of genes.
+   *
+   * @param length number of genes
+   * @return word count
+   */
+  public static int wordsFor(int length) {
+    return (length + 63) >>> 6;
+  }
+
+  /** Return the number of genes. */
+  public int length() {
+    return length;
+  }
+
+  /** Return the number of backing words. */
+  public int wordCount() {
+    return wordCount;
+  }
+
+  /**
+   * Read a backing word.
+   *
+   * @param wordIndex word index
+   * @return the 64 genes stored in that word
+   */
+  public long getWord(int wordIndex) {
+    return words[offset + wordIndex];
+  }
+
+  /**
+   * Overwrite a backing word. Bits beyond the chromosome length are discarded.
+   *
+   * @param wordIndex word index
+   * @param value new word value
+   */
+  public void setWord(int wordIndex, long value) {
+    if (wordIndex == wordCount - 1) value &= tailMask();
+    words[offset + wordIndex] = value;
+  }
+
+  /**
+   * Read a single gene.
+   *
+   * @param index gene index
+   * @return gene value
+   */
+  public boolean get(int index) {
+    checkIndex(index);
+    return (words[offset + (index >>> 6)] & (1L << index)) != 0;
+  }
+
+  /**
+   * Set a single gene.
+   *
+   * @param index gene index
+   * @param value gene value
+   */
+  public void set(int index, boolean value) {
+    checkIndex(index);
+    if (value) words[offset + (index >>> 6)] |= 1L << index;
+    else words[offset + (index >>> 6)] &= ~(1L << index);
+  }
+
+  /**
+   * Invert a single gene.
+   *
+   * @param index gene index
+   */
+  public void flip(int index) {
+    checkIndex(index);
+    words[offset + (index >>> 6)] ^= 1L << index;
+  }
+
+  /** Count the genes that are set, one popcount per word. */
+  public int cardinality() {
+    int count = 0;
+    for (int w = offset; w < offset + wordCount; w++) count += Long.bitCount(words[w]);
+    return count;
+  }
+
+  /**
+   * Count the set genes in {@code [from, to)}, masking only the two boundary words.
+   *
+   * @param from first gene index, inclusive
+   * @param to last gene index, exclusive
+   * @return number of set genes in the range
+   */
+  public int cardinality(int from, int to) {
+    checkRange(from, to);
+    if (from == to) return 0;
+    int first = offset + (from >>> 6);
+    int last = offset + ((to - 1) >>> 6);
+    long firstMask = -1L << from;
+    long lastMask = -1L >>> -to;
+    if (first == last) return Long.bitCount(words[first] & firstMask & lastMask);
+    int count = Long.bitCount(words[first] & firstMask) + Long.bitCount(words[last] & lastMask);
+    for (int w = first + 1; w < last; w++) count += Long.bitCount(words[w]);
+    return count;
+  }
+
+  /**
+   * Overwrite every gene with the genes of another chromosome of the same length.
+   *
+   * @param src chromosome to copy from
+   */
+  public void copyFrom(BitChromosome src) {
+    checkSameLength(src);
+    System.arraycopy(src.words, src.offset, words, offset, wordCount);
+  }
+
+  /**
+   * Overwrite genes in {@code [from, to)} with the genes of another chromosome of the same length.
+   * Whole words are copied directly; only the two boundary words are blended.
+   *
+   * @param src chromosome to copy from
+   * @param from first gene index, inclusive
+   * @param to last gene index, exclusive
+   */
+  public void copyRange(BitChromosome src, int from, int to) {
+    checkSameLength(src);
+    checkRange(from, to);
+    if (from == to) return;
+
+    int first = from >>> 6;
+    int last = (to - 1) >>> 6;
+    int d = offset;
+    int s = src.offset;
+    long firstMask = -1L << from;
+    long lastMask = -1L >>> -to;
+
+    if (first == last) {
+      long m = firstMask & lastMask;
+      words[d + first] = (words[d + first] & ~m) | (src.words[s + first] & m);
+      return;
+    }
+    words[d + first] = (words[d + first] & ~firstMask) | (src.words[s + first] & firstMask);
+    System.arraycopy(src.words, s + first + 1, words, d + first + 1, last - first - 1);
+    words[d + last] = (words[d + last] & ~lastMask) | (src.words[s + last] & lastMask);
+  }
+
+  /**
+   * Count the positions at which this chromosome differs from another of the same length.
+   *
+   * @param other chromosome to compare with
+   * @return Hamming distance
+   */
+  public int hammingDistance(BitChromosome other) {
+    checkSameLength(other);
+    int dist = 0;
+    for (int w = 0; w < wordCount; w++) {
+      dist += Long.bitCount(words[offset + w] ^ other.words[other.offset + w]);
+    }
+    return dist;
+  }
+
+  /** Unpack the genes into a new boolean array. */
+  public boolean[] toBooleanArray() {
+    boolean[] genes = new boolean[length];
+    for (int i = 0; i < length; i++) genes[i] = (words[offset + (i >>> 6)] & (1L << i)) != 0;
+    return genes;
+  }
+
+  /** Create an independent copy of this chromosome that owns its words. */
+  public BitChromosome copy() {
+    BitChromosome c = new BitChromosome(length);
+    c.copyFrom(this);
+    return c;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof BitChromosome)) return false;
+    BitChromosome other = (BitChromosome) o;
+    return length == other.length
+        && Arrays.equals(
+            words, offset, offset + wordCount, other.words, other.offset, other.offset + wordCount);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = length;
+    for (int w = offset; w < offset + wordCount; w++) h = 31 * h + Long.hashCode(words[w]);
+    return h;
+  }
+
+  /** Mask of the valid bits in the last word. */
+  private long tailMask() {
+    return -1L >>> -length;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Gene " + index + " of " + length);
+    }
+  }
+
+  private void checkRange(int from, int to) {
+    if (from < 0 || to > length || from > to) {
+      throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + length);
+    }
+  }
+
+  private void checkSameLength(BitChromosome other) {
+    if (other.length != length) {
+      throw new IllegalArgumentException(
+          "Chromosome length mismatch: " + other.length + " != " + length);
+    }
+  }
+}
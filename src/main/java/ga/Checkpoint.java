@@ -0,0 +1,198 @@
+package ga;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary snapshot of a {@link GeneticAlgorithm}. The population's primitive arrays are copied in
+ * bulk through a reusable direct buffer and plain {@link FileChannel} reads and writes, so saving
+ * costs little more than a memory copy and a restore avoids evaluating anything.
+ *
+ * <p>Layout, little-endian: a fixed header with the magic number, version, population size,
+ * chromosome length, seed, restart counter, generation, global mutation rate, crossover rate,
+ * duplicate replacement flag and evaluation count; then the packed gene words of every slot, the
+ * fitness values, the mutation rates and one evaluation flag byte per slot. Because every random
+ * stream of the engine is derived from the seed, the restart counter and the generation, those
+ * three numbers are the complete RNG state and a restored seeded run continues bit for bit.
+ *
+ * <p>The fitness function, selection strategy, fitness cache, hall of fame, listeners and
+ * parallelism are not stored; the caller configures them again after loading. A snapshot is written
+ * to a temporary file, forced to disk and then renamed over the target, so a crash never leaves a
+ * torn checkpoint behind. Files are deliberately not memory-mapped: a mapping stays alive until it
+ * is garbage collected, and Windows refuses to rename over or delete a mapped file, which would
+ * break the atomic replace and resuming from the file being checkpointed.
+ */
+final class Checkpoint {
+  private static final int MAGIC = 0x4741434b; // "GACK"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 64;
+
+  /** Size of the transfer buffer; large enough to amortize system calls. */
+  private static final int BUFFER_BYTES = 1 << 20;
+
+  private Checkpoint() {}
+
+  /**
+   * Snapshot an engine.
+   *
+   * @param ga engine to save
+   * @param file destination, replaced atomically
+   * @throws IOException if the file cannot be written
+   */
+  static void write(GeneticAlgorithm ga, Path file) throws IOException {
+    PopulationStore store = ga.currentStore();
+    int n = store.size();
+    Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    try (FileChannel ch =
+        FileChannel.open(
+            tmp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      buf.putInt(MAGIC).putInt(VERSION);
+      buf.putInt(n).putInt(store.getChromosomeLength());
+      buf.putLong(ga.getSeed()).putInt(ga.getRun()).putInt(ga.getGeneration());
+      buf.putDouble(ga.getMutationRate()).putDouble(ga.getCrossoverRate());
+      buf.putLong(ga.isReplaceDuplicates() ? 1 : 0).putLong(ga.getEvaluations());
+
+      putLongs(ch, buf, store.geneWords());
+      putDoubles(ch, buf, store.fitnessValues());
+      putDoubles(ch, buf, store.mutationRateValues());
+      for (boolean evaluated : store.evaluatedFlags()) {
+        if (!buf.hasRemaining()) drain(ch, buf);
+        buf.put((byte) (evaluated ? 1 : 0));
+      }
+      drain(ch, buf);
+      ch.force(true);
+    }
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Restore an engine from a snapshot.
+   *
+   * @param file snapshot written by {@link #write}
+   * @param fitnessFunction objective of the checkpointed run
+   * @return restored engine
+   * @throws IOException if the file cannot be read or is not a compatible checkpoint
+   */
+  static GeneticAlgorithm read(Path file, FitnessFunction fitnessFunction) throws IOException {
+    ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buf.limit(0);
+    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (ch.size() < HEADER_BYTES) throw new IOException("Not a checkpoint: " + file);
+      refill(ch, buf, HEADER_BYTES);
+      if (buf.getInt() != MAGIC) throw new IOException("Not a checkpoint: " + file);
+      int version = buf.getInt();
+      if (version != VERSION) throw new IOException("Unsupported checkpoint version " + version);
+      int n = buf.getInt();
+      int length = buf.getInt();
+      long seed = buf.getLong();
+      int run = buf.getInt();
+      int generation = buf.getInt();
+      double mutationRate = buf.getDouble();
+      double crossoverRate = buf.getDouble();
+      boolean replaceDuplicates = buf.getLong() != 0;
+      long evaluations = buf.getLong();
+
+      // Check the header against the file size before allocating anything it describes.
+      if (n < 1 || length < 1) {
+        throw new IOException("Corrupt checkpoint: " + n + " individuals of length " + length);
+      }
+      long words = Math.multiplyExact((long) n, BitChromosome.wordsFor(length));
+      if (words > Integer.MAX_VALUE - 8) {
+        throw new IOException("Corrupt checkpoint: " + n + " individuals of length " + length);
+      }
+      // Gene words, fitness and mutation rate doubles, and one flag byte per individual.
+      long expected =
+          Math.addExact(
+              HEADER_BYTES,
+              Math.addExact(Math.multiplyExact(8L, words), Math.multiplyExact(2 * 8L + 1, n)));
+      if (ch.size() != expected) {
+        throw new IOException("Truncated checkpoint: " + ch.size() + " of " + expected + " bytes");
+      }
+      PopulationStore store = new PopulationStore(n, length);
+      getLongs(ch, buf, store.geneWords());
+      getDoubles(ch, buf, store.fitnessValues());
+      getDoubles(ch, buf, store.mutationRateValues());
+      boolean[] evaluated = store.evaluatedFlags();
+      for (int i = 0; i < n; i++) {
+        if (!buf.hasRemaining()) refill(ch, buf, 1);
+        evaluated[i] = buf.get() != 0;
+      }
+
+      GeneticAlgorithm ga =
+          new GeneticAlgorithm(n, length, mutationRate, crossoverRate, seed, store);
+      ga.setReplaceDuplicates(replaceDuplicates);
+      ga.restoreState(fitnessFunction, run, generation, evaluations);
+      return ga;
+    }
+  }
+
+  /** Write out what the buffer holds and clear it for filling. */
+  private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+    buf.flip();
+    while (buf.hasRemaining()) ch.write(buf);
+    buf.clear();
+  }
+
+  /** Keep the unread bytes and read until at least {@code min} bytes are available. */
+  private static void refill(FileChannel ch, ByteBuffer buf, int min) throws IOException {
+    buf.compact();
+    while (buf.position() < min) {
+      if (ch.read(buf) < 0) throw new IOException("Truncated checkpoint");
+    }
+    buf.flip();
+  }
+
+  /** Append an array in bulk, draining the buffer whenever it fills up. */
+  private static void putLongs(FileChannel ch, ByteBuffer buf, long[] values) throws IOException {
+    for (int from = 0; from < values.length; ) {
+      if (buf.remaining() < 8) drain(ch, buf);
+      int count = Math.min(values.length - from, buf.remaining() / 8);
+      buf.asLongBuffer().put(values, from, count);
+      buf.position(buf.position() + 8 * count);
+      from += count;
+    }
+  }
+
+  private static void putDoubles(FileChannel ch, ByteBuffer buf, double[] values)
+      throws IOException {
+    for (int from = 0; from < values.length; ) {
+      if (buf.remaining() < 8) drain(ch, buf);
+      int count = Math.min(values.length - from, buf.remaining() / 8);
+      buf.asDoubleBuffer().put(values, from, count);
+      buf.position(buf.position() + 8 * count);
+      from += count;
+    }
+  }
+
+  /** Fill an array in bulk, refilling the buffer whenever it runs dry. */
+  private static void getLongs(FileChannel ch, ByteBuffer buf, long[] values) throws IOException {
+    for (int from = 0; from < values.length; ) {
+      if (buf.remaining() < 8) refill(ch, buf, 8);
+      int count = Math.min(values.length - from, buf.remaining() / 8);
+      buf.asLongBuffer().get(values, from, count);
+      buf.position(buf.position() + 8 * count);
+      from += count;
+    }
+  }
+
+  private static void getDoubles(FileChannel ch, ByteBuffer buf, double[] values)
+      throws IOException {
+    for (int from = 0; from < values.length; ) {
+      if (buf.remaining() < 8) refill(ch, buf, 8);
+      int count = Math.min(values.length - from, buf.remaining() / 8);
+      buf.asDoubleBuffer().get(values, from, count);
+      buf.position(buf.position() + 8 * count);
+      from += count;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package ga;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Listener that saves a {@link GeneticAlgorithm#saveCheckpoint checkpoint} every few generations,
+ * always overwriting the same file, so a crashed run can be resumed with {@link
+ * GeneticAlgorithm#loadCheckpoint}.
+ */
+public final class CheckpointListener implements EvolutionListener {
+  private final Path file;
+  private final int interval;
+
+  /**
+   * Create a listener.
+   *
+   * @param file checkpoint file, replaced atomically on every save
+   * @param interval generations between checkpoints, at least 1
+   */
+  public CheckpointListener(Path file, int interval) {
+    if (interval < 1) throw new IllegalArgumentException("Interval must be positive");
+    this.file = file;
+    this.interval = interval;
+  }
+
+  /**
+   * Save a checkpoint when the generation counter is a multiple of the interval.
+   *
+   * @throws UncheckedIOException if the checkpoint cannot be written
+   */
+  @Override
+  public void generationEvolved(GeneticAlgorithm ga, OperatorEvents events) {
+    if (ga.getGeneration() % interval != 0) return;
+    try {
+      ga.saveCheckpoint(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
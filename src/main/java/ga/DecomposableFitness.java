@@ -0,0 +1,42 @@
+package ga;
+
+/**
+ * Fitness function that is a sum of independent per-locus contributions. For such objectives the
+ * engine derives a child's fitness from its parents' cached fitness: it adds the difference over
+ * the segment swapped by crossover and over each flipped locus, instead of rescanning the whole
+ * chromosome. A child that was neither crossed nor mutated simply inherits its parent's fitness.
+ *
+ * <p>Incremental values are exact for integer-valued contributions; fractional contributions may
+ * accumulate rounding error over many generations.
+ */
+public interface DecomposableFitness extends FitnessFunction {
+
+  /**
+   * Contribution of a single locus holding the given allele.
+   *
+   * @param locus gene index
+   * @param allele gene value
+   * @return contribution to the total fitness
+   */
+  double locusValue(int locus, boolean allele);
+
+  /**
+   * Sum of the contributions of the genes of an individual in {@code [from, to)}. Override when a
+   * faster bulk form exists, such as a popcount.
+   *
+   * @param individual individual to read
+   * @param from first gene index, inclusive
+   * @param to last gene index, exclusive
+   * @return summed contribution
+   */
+  default double rangeValue(Individual individual, int from, int to) {
+    double sum = 0;
+    for (int i = from; i < to; i++) sum += locusValue(i, individual.getGene(i));
+    return sum;
+  }
+
+  @Override
+  default double evaluate(Individual individual) {
+    return rangeValue(individual, 0, individual.getLength());
+  }
+}
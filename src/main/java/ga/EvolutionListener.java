@@ -0,0 +1,39 @@
+package ga;
+
+/**
+ * Observer of a {@link GeneticAlgorithm}. Every callback has an empty default so implementations
+ * only override what they need. Callbacks run on the thread that drives the algorithm.
+ */
+public interface EvolutionListener {
+
+  /**
+   * Whether this listener needs per-gene operator events. When no attached listener does, the
+   * engine records no crossover or mutation data at all and passes {@code null} events.
+   */
+  default boolean wantsOperatorEvents() {
+    return false;
+  }
+
+  /**
+   * Called once after each generation has been evolved.
+   *
+   * @param ga the algorithm that evolved
+   * @param events crossover and mutation events of the generation, or {@code null} if no listener
+   *     asked for them; the instance is reused by the engine and only valid during the call
+   */
+  default void generationEvolved(GeneticAlgorithm ga, OperatorEvents events) {}
+
+  /**
+   * Called after the population has been reinitialized, for example by a restart.
+   *
+   * @param ga the algorithm that was reset
+   */
+  default void populationReset(GeneticAlgorithm ga) {}
+
+  /**
+   * Called when mutation rates were changed from outside the evolution loop.
+   *
+   * @param ga the algorithm whose rates changed
+   */
+  default void mutationRateChanged(GeneticAlgorithm ga) {}
+}
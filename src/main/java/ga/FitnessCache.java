@@ -0,0 +1,123 @@
+package ga;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size-bounded memo of fitness values keyed by a 128-bit hash of the packed chromosome. Entries are
+ * evicted in least-recently-used order once {@code maxEntries} is exceeded. The cache is used from
+ * the engine's evaluation stage on a single thread and is not itself thread-safe.
+ */
+public final class FitnessCache {
+
+  /**
+   * 128-bit chromosome fingerprint built from two independent 64-bit hash lanes.
+   *
+   * @param hi first hash lane
+   * @param lo second hash lane
+   */
+  public record Key(long hi, long lo) {
+
+    /**
+     * Fingerprint the genes of an individual; mutation rate and fitness are ignored.
+     *
+     * @param ind individual to fingerprint
+     * @return chromosome key
+     */
+    public static Key of(Individual ind) {
+      BitChromosome c = ind.bits();
+      long h1 = 0x9e3779b97f4a7c15L ^ c.length();
+      long h2 = 0xc2b2ae3d27d4eb4fL + c.length();
+      for (int w = 0; w < c.wordCount(); w++) {
+        long v = c.getWord(w);
+        h1 = Long.rotateLeft(h1 ^ v, 29) * 0xbf58476d1ce4e5b9L;
+        h2 = Long.rotateLeft(h2 + v, 31) * 0x94d049bb133111ebL;
+      }
+      return new Key(SplitMix64.mix(h1), SplitMix64.mix(h2 ^ h1));
+    }
+  }
+
+  private final int maxEntries;
+  private final LinkedHashMap<Key, Double> entries;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * Create an empty cache.
+   *
+   * @param maxEntries maximum number of fitness values retained
+   */
+  public FitnessCache(int maxEntries) {
+    if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive");
+    this.maxEntries = maxEntries;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+            if (size() <= FitnessCache.this.maxEntries) return false;
+            evictions++;
+            return true;
+          }
+        };
+  }
+
+  /**
+   * Look up a cached fitness, counting a hit or a miss.
+   *
+   * @param key chromosome key
+   * @return cached fitness, or {@code null} on a miss
+   */
+  public Double lookup(Key key) {
+    Double value = entries.get(key);
+    if (value == null) misses++;
+    else hits++;
+    return value;
+  }
+
+  /**
+   * Remember the fitness of a chromosome, evicting the least recently used entry if full.
+   *
+   * @param key chromosome key
+   * @param fitness fitness value
+   */
+  public void put(Key key, double fitness) {
+    entries.put(key, fitness);
+  }
+
+  /** Drop every entry, for example after the fitness function changed. Counters are kept. */
+  public void clear() {
+    entries.clear();
+  }
+
+  /** Return the configured capacity. */
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  /** Return the number of cached fitness values. */
+  public int size() {
+    return entries.size();
+  }
+
+  /** Return the number of lookups answered from the cache. */
+  public long getHits() {
+    return hits;
+  }
+
+  /** Return the number of lookups that required an evaluation. */
+  public long getMisses() {
+    return misses;
+  }
+
+  /** Return the number of entries evicted to respect the capacity. */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  /** Return the fraction of lookups that hit, or 0 before the first lookup. */
+  public double getHitRate() {
+    long total = hits + misses;
+    return (total == 0) ? 0 : (double) hits / total;
+  }
+}
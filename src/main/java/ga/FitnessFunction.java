@@ -0,0 +1,45 @@
+package ga;
+
+/**
+ * Objective maximized by a {@link GeneticAlgorithm}. The engine evaluates each generation as one
+ * stage after breeding: it hands batches of children to {@link #evaluateAll}, splitting the
+ * population across worker threads when parallelism is enabled. Implementations must therefore be
+ * safe to call concurrently on different individuals and must not modify their genes.
+ */
+@FunctionalInterface
+public interface FitnessFunction {
+
+  /**
+   * Compute the fitness of a single individual.
+   *
+   * @param individual individual to score
+   * @return fitness, higher is better
+   */
+  double evaluate(Individual individual);
+
+  /**
+   * Score a batch of individuals and store each result with {@link Individual#setFitness}. Override
+   * to amortize per-call overhead, for example by submitting the whole batch to an external
+   * simulator at once.
+   *
+   * @param batch individuals to score
+   */
+  default void evaluateAll(Individual[] batch) {
+    for (Individual ind : batch) ind.setFitness(evaluate(ind));
+  }
+
+  /** Return the OneMax objective: the number of set genes, computed one word at a time. */
+  static DecomposableFitness oneMax() {
+    return new DecomposableFitness() {
+      @Override
+      public double locusValue(int locus, boolean allele) {
+        return allele ? 1 : 0;
+      }
+
+      @Override
+      public double rangeValue(Individual individual, int from, int to) {
+        return individual.bits().cardinality(from, to);
+      }
+    };
+  }
+}
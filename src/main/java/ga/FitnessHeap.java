@@ -0,0 +1,80 @@
+package ga;
+
+/**
+ * Indexed binary min-heap over the slots of a {@link PopulationStore}, ordered by fitness. The
+ * least fit slot is found in O(1) and a slot whose fitness changed is repositioned in O(log n),
+ * which makes replace-worst cheap for large populations. Not thread-safe; meant for a single
+ * replacement thread.
+ */
+final class FitnessHeap {
+  private final PopulationStore store;
+  private final int[] heap;
+  private final int[] position;
+
+  /**
+   * Build a heap over every slot of the store in O(n).
+   *
+   * @param store population whose fitness array orders the heap
+   */
+  FitnessHeap(PopulationStore store) {
+    this.store = store;
+    int n = store.size();
+    this.heap = new int[n];
+    this.position = new int[n];
+    for (int i = 0; i < n; i++) {
+      heap[i] = i;
+      position[i] = i;
+    }
+    for (int i = n / 2 - 1; i >= 0; i--) siftDown(i);
+  }
+
+  /** Return the slot with the lowest fitness. */
+  int worst() {
+    return heap[0];
+  }
+
+  /**
+   * Restore the heap order after the fitness of a slot changed.
+   *
+   * @param slot slot whose fitness was rewritten
+   */
+  void update(int slot) {
+    int i = position[slot];
+    siftUp(i);
+    siftDown(position[slot]);
+  }
+
+  private void siftUp(int i) {
+    int slot = heap[i];
+    double f = store.getFitness(slot);
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (store.getFitness(heap[parent]) <= f) break;
+      place(heap[parent], i);
+      i = parent;
+    }
+    place(slot, i);
+  }
+
+  private void siftDown(int i) {
+    int n = heap.length;
+    int slot = heap[i];
+    double f = store.getFitness(slot);
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= n) break;
+      if (child + 1 < n && store.getFitness(heap[child + 1]) < store.getFitness(heap[child])) {
+        child++;
+      }
+      if (store.getFitness(heap[child]) >= f) break;
+      place(heap[child], i);
+      i = child;
+    }
+    place(slot, i);
+  }
+
+  private void place(int slot, int i) {
+    heap[i] = slot;
+    position[slot] = i;
+  }
+}
@@ -0,0 +1,26 @@
+package ga;
+
+/** Conversion of fitness values into the non-negative weights of proportionate selection. */
+final class FitnessWeights {
+  private FitnessWeights() {}
+
+  /**
+   * Copy the population's fitness into {@code weights}, shifted up by the minimum if any fitness is
+   * negative.
+   *
+   * @param population population to read
+   * @param weights destination, at least as long as the population
+   * @return sum of the weights
+   */
+  static double fill(PopulationStore population, double[] weights) {
+    int n = population.size();
+    double min = 0;
+    for (int i = 0; i < n; i++) min = Math.min(min, population.getFitness(i));
+    double total = 0;
+    for (int i = 0; i < n; i++) {
+      weights[i] = population.getFitness(i) - min;
+      total += weights[i];
+    }
+    return total;
+  }
+}
@@ -0,0 +1,147 @@
+package ga;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One non-blocking connection of a {@link MigrationTransport}. Any thread may {@link #enqueue}
+ * frames; only the transport's I/O thread reads and writes the socket. The bytes waiting to be
+ * written are capped, so a slow or dead peer makes new frames be dropped instead of piling up or
+ * blocking the sender.
+ */
+final class FrameChannel {
+  private final SocketChannel channel;
+  private final Selector selector;
+  private final long maxPendingBytes;
+  private final ConcurrentLinkedQueue<ByteBuffer> out = new ConcurrentLinkedQueue<>();
+  private final AtomicLong pendingBytes = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private ByteBuffer in = ByteBuffer.allocate(4096);
+  private volatile boolean closed;
+
+  /**
+   * Wrap a socket channel.
+   *
+   * @param channel non-blocking socket, connected or connecting
+   * @param selector selector of the I/O thread, woken when frames are enqueued
+   * @param maxPendingBytes cap on bytes waiting to be written
+   */
+  FrameChannel(SocketChannel channel, Selector selector, long maxPendingBytes) {
+    this.channel = channel;
+    this.selector = selector;
+    this.maxPendingBytes = maxPendingBytes;
+  }
+
+  /** Return the underlying socket. */
+  SocketChannel channel() {
+    return channel;
+  }
+
+  /**
+   * Queue a complete frame for sending without blocking. Safe to call from any thread.
+   *
+   * @param frame frame positioned at its first byte; must not be modified afterwards
+   * @return false if the frame was dropped because the peer is closed or too far behind
+   */
+  boolean enqueue(ByteBuffer frame) {
+    int size = frame.remaining();
+    if (closed || pendingBytes.addAndGet(size) > maxPendingBytes) {
+      pendingBytes.addAndGet(-size);
+      dropped.incrementAndGet();
+      return false;
+    }
+    out.add(frame);
+    selector.wakeup();
+    return true;
+  }
+
+  /** Return whether frames are waiting to be written. */
+  boolean hasPending() {
+    return pendingBytes.get() > 0;
+  }
+
+  /** Return how many frames were dropped instead of sent. */
+  long getDropped() {
+    return dropped.get();
+  }
+
+  /** Return whether the connection has been closed. */
+  boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Write as much queued data as the socket accepts. Called on the I/O thread only.
+   *
+   * @return true if everything queued has been written
+   * @throws IOException if the connection failed
+   */
+  boolean flush() throws IOException {
+    for (ByteBuffer b = out.peek(); b != null; b = out.peek()) {
+      channel.write(b);
+      if (b.hasRemaining()) return false;
+      out.poll();
+      pendingBytes.addAndGet(-b.limit());
+    }
+    return true;
+  }
+
+  /**
+   * Read available bytes and hand every complete frame to the handler. Called on the I/O thread
+   * only.
+   *
+   * @param handler receiver of the frames; payloads are only valid during the call
+   * @return false once the peer has closed the connection
+   * @throws IOException if the connection failed, sent a malformed frame, or the handler could not
+   *     decode a payload
+   */
+  boolean read(MigrationTransport.FrameHandler handler) throws IOException {
+    if (channel.read(in) < 0) return false;
+    in.flip();
+    while (in.remaining() >= 4) {
+      int length = in.getInt(in.position());
+      if (length < 1 || length > IslandProtocol.MAX_FRAME) {
+        throw new IOException("Malformed frame of length " + length);
+      }
+      if (in.remaining() < 4 + length) {
+        if (in.capacity() < 4 + length) in = grow(in, 4 + length);
+        break;
+      }
+      int start = in.position() + 4;
+      byte type = in.get(start);
+      ByteBuffer payload = in.slice(start + 1, length - 1);
+      in.position(start + length);
+      try {
+        handler.onFrame(this, type, payload);
+      } catch (RuntimeException e) {
+        // Only this peer is dropped; the I/O thread keeps serving the others.
+        throw new IOException("Undecodable frame of type " + type, e);
+      }
+    }
+    in.compact();
+    return true;
+  }
+
+  /** Close the socket and drop everything still queued. */
+  void close() {
+    closed = true;
+    out.clear();
+    pendingBytes.set(0);
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+      // Nothing left to release.
+    }
+  }
+
+  /** Copy the unread bytes of a flipped buffer into a larger one, leaving it flipped. */
+  private static ByteBuffer grow(ByteBuffer b, int capacity) {
+    ByteBuffer bigger = ByteBuffer.allocate(Math.max(capacity, 2 * b.capacity()));
+    bigger.put(b).flip();
+    return bigger;
+  }
+}
@@ -0,0 +1,66 @@
+package ga;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** Custom JDK Flight Recorder events emitted by {@link Instrumentation}. */
+final class GaEvents {
+  private GaEvents() {}
+
+  /** One generation of a {@link GeneticAlgorithm}, spanning all of its phases. */
+  @Name("ga.Generation")
+  @Label("Generation")
+  @Category("Genetic Algorithm")
+  @Description("One generation of a genetic algorithm")
+  static final class GenerationEvent extends Event {
+    @Label("Generation")
+    int generation;
+
+    @Label("Best Fitness")
+    double bestFitness;
+
+    @Label("Mean Fitness")
+    double meanFitness;
+
+    @Label("Evaluations")
+    long evaluations;
+  }
+
+  /** One phase of a generation, such as breeding or evaluation. */
+  @Name("ga.Phase")
+  @Label("Phase")
+  @Category("Genetic Algorithm")
+  @Description("One phase of a genetic algorithm generation")
+  static final class PhaseEvent extends Event {
+    @Label("Generation")
+    int generation;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+  }
+
+  /** Fitness evaluation of one generation's children. */
+  @Name("ga.Evaluation")
+  @Label("Evaluation")
+  @Category("Genetic Algorithm")
+  @Description("Fitness evaluation of a generation's children")
+  static final class EvaluationEvent extends Event {
+    @Label("Generation")
+    int generation;
+
+    @Label("Evaluations")
+    long evaluations;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+  }
+}
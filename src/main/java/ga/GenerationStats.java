@@ -0,0 +1,21 @@
+package ga;
+
+/**
+ * Summary of one generation's population, computed in a single pass once its fitness is final.
+ *
+ * @param generation generation counter the statistics belong to
+ * @param minFitness lowest fitness
+ * @param maxFitness highest fitness
+ * @param meanFitness mean fitness
+ * @param fitnessVariance population variance of the fitness
+ * @param meanMutationRate mean self-adaptive mutation rate
+ * @param bestIndex slot of the fittest individual, the first one on ties
+ */
+public record GenerationStats(
+    int generation,
+    double minFitness,
+    double maxFitness,
+    double meanFitness,
+    double fitnessVariance,
+    double meanMutationRate,
+    int bestIndex) {}
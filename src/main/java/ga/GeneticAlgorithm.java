@@ -1,20 +1,71 @@
 package ga;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import gui.ControlPanel;
-import gui.PopulationPanel;
-import java.util.Random;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
-/** Simple genetic algorithm orchestrator that manages a population of Individuals. */
+/**
+ * Simple genetic algorithm orchestrator that manages a population of Individuals. The engine has no
+ * UI dependency; visualizations observe it through {@link EvolutionListener}s.
+ *
+ * <p>Offspring are bred in fixed-size chunks of pairs, each drawing from its own random stream
+ * derived from the seed, the generation and the chunk index. Chunks only read the previous
+ * population, so they can run on a fork/join pool and a seeded run gives identical results for any
+ * parallelism.
+ */
 public class GeneticAlgorithm {
+  /** Offspring pairs bred per chunk; fixed so results never depend on the thread count. */
+  static final int PAIRS_PER_CHUNK = 64;
+
+  private static final Individual[] NONE = new Individual[0];
+
+  private PopulationStore store;
+  private PopulationStore spareStore;
+  private boolean doubleBuffered;
+  private Individual scratchChild;
   private Individual[] population;
   private int populationSize;
   private int chromosomeLength;
   private double globalMutationRate;
   private double crossoverRate;
-  private Random rand = new Random();
+  private final long seed;
+  private int run = 0;
+  private final SplitMix64 sequentialRandom = new SplitMix64(0);
+  private ForkJoinPool pool;
   private int generation = 0;
-  private transient ControlPanel controlPanel;
+  private final List<EvolutionListener> listeners = new ArrayList<>();
+  private final OperatorEvents events = new OperatorEvents();
+  private AlleleCounts alleleCounts;
+  private AlleleCounts spareCounts;
+  private FitnessFunction fitnessFunction = FitnessFunction.oneMax();
+  private FitnessCache fitnessCache;
+  private boolean replaceDuplicates;
+  private VirtualThreadEvaluation virtualThreadEvaluation;
+  private SelectionStrategy selection = new TournamentSelection(3);
+  private HallOfFame hallOfFame;
+  private Instrumentation instrumentation;
+  private final long[] operatorNanos = new long[Instrumentation.OPERATOR_TIMINGS];
+  private double minFitness;
+  private double maxFitness;
+  private double meanFitness;
+  private double fitnessVariance;
+  private double meanMutationRate;
+  private int bestIndex;
+  private long duplicatesReplaced;
+  private long evaluations;
 
   /**
    * Create a new GeneticAlgorithm with the supplied parameters and initialize the population.
@@ -26,13 +77,53 @@ public class GeneticAlgorithm {
    */
   public GeneticAlgorithm(
       int populationSize, int chromosomeLength, double mutationRate, double crossoverRate) {
+    this(
+        populationSize,
+        chromosomeLength,
+        mutationRate,
+        crossoverRate,
+        ThreadLocalRandom.current().nextLong());
+  }
 
+  /**
+   * Create a new GeneticAlgorithm whose evolution is fully determined by the given seed.
+   *
+   * @param populationSize number of individuals
+   * @param chromosomeLength length of each individual's chromosome
+   * @param mutationRate initial global mutation rate
+   * @param crossoverRate crossover probability
+   * @param seed master seed of every random stream used by the engine
+   */
+  public GeneticAlgorithm(
+      int populationSize,
+      int chromosomeLength,
+      double mutationRate,
+      double crossoverRate,
+      long seed) {
+    this(populationSize, chromosomeLength, mutationRate, crossoverRate, seed, null);
+  }
+
+  /**
+   * Create an engine around a restored population, or a fresh random one if none is given.
+   *
+   * @param restored population to adopt as it is, or null to initialize one; a restored engine is
+   *     not evaluated until {@link #restoreState}
+   */
+  GeneticAlgorithm(
+      int populationSize,
+      int chromosomeLength,
+      double mutationRate,
+      double crossoverRate,
+      long seed,
+      PopulationStore restored) {
+    this.seed = seed;
     this.populationSize = populationSize;
     this.chromosomeLength = chromosomeLength;
     this.globalMutationRate = mutationRate;
     this.crossoverRate = crossoverRate;
 
-    initPopulation();
+    if (restored == null) initPopulation();
+    else adoptPopulation(restored);
   }
 
   /** Get the configured population size. */
@@ -63,14 +154,13 @@ public class GeneticAlgorithm {
   public void setMutationRate(double mutationRate) {
     this.globalMutationRate = mutationRate;
     for (Individual ind : population) ind.setMutationRate(mutationRate);
-    updateMutationSlider();
+    refreshStats();
+    for (EvolutionListener l : listeners) l.mutationRateChanged(this);
   }
 
-  /** Compute the average mutation rate across the population. */
+  /** Return the average mutation rate across the population. */
   public double getAverageMutationRate() {
-    double total = 0;
-    for (Individual ind : population) total += ind.getMutationRate();
-    return total / populationSize;
+    return meanMutationRate;
   }
 
   /** Alias for the current average mutation rate. */
@@ -92,6 +182,170 @@ public class GeneticAlgorithm {
     this.crossoverRate = rate;
   }
 
+  /** Return the master seed of this run. */
+  public long getSeed() {
+    return seed;
+  }
+
+  /** Return the number of threads used to breed a generation; 1 means the calling thread. */
+  public int getParallelism() {
+    return (pool == null) ? 1 : pool.getParallelism();
+  }
+
+  /**
+   * Set how many worker threads breed, mutate and evaluate offspring. Values of 1 or less breed on
+   * the calling thread. Results of a seeded run do not depend on this setting.
+   *
+   * @param threads number of fork/join worker threads
+   */
+  public void setParallelism(int threads) {
+    if (threads == getParallelism()) return;
+    if (pool != null) pool.shutdown();
+    pool = (threads > 1) ? new ForkJoinPool(threads) : null;
+  }
+
+  /** Return the objective used to evaluate individuals. */
+  public FitnessFunction getFitnessFunction() {
+    return fitnessFunction;
+  }
+
+  /**
+   * Replace the objective and re-evaluate the current population with it.
+   *
+   * @param fitnessFunction new objective
+   */
+  public void setFitnessFunction(FitnessFunction fitnessFunction) {
+    this.fitnessFunction = fitnessFunction;
+    if (fitnessCache != null) fitnessCache.clear();
+    if (hallOfFame != null) hallOfFame.clear();
+    for (Individual ind : population) ind.invalidateFitness();
+    evaluate(population);
+    refreshStats();
+  }
+
+  /** Return the fitness memo in use, or null if caching is disabled. */
+  public FitnessCache getFitnessCache() {
+    return fitnessCache;
+  }
+
+  /**
+   * Memoize fitness values so that chromosomes seen before are not evaluated again.
+   *
+   * @param fitnessCache cache to use, or null to disable caching
+   */
+  public void setFitnessCache(FitnessCache fitnessCache) {
+    this.fitnessCache = fitnessCache;
+  }
+
+  /** Return the virtual-thread evaluation mode in use, or null if it is off. */
+  public VirtualThreadEvaluation getVirtualThreadEvaluation() {
+    return virtualThreadEvaluation;
+  }
+
+  /**
+   * Evaluate each child on its own virtual thread instead of on the pool, for fitness functions
+   * that mostly wait on I/O. The caller keeps ownership and closes the mode when done.
+   *
+   * @param evaluation evaluation mode, or null to evaluate on the pool again
+   */
+  public void setVirtualThreadEvaluation(VirtualThreadEvaluation evaluation) {
+    this.virtualThreadEvaluation = evaluation;
+  }
+
+  /** Return the parent selection scheme. */
+  public SelectionStrategy getSelectionStrategy() {
+    return selection;
+  }
+
+  /**
+   * Choose how parents are selected; the default is a tournament of size 3. The strategy keeps
+   * per-engine tables and must not be shared with another engine.
+   *
+   * @param selection selection scheme
+   */
+  public void setSelectionStrategy(SelectionStrategy selection) {
+    this.selection = Objects.requireNonNull(selection);
+  }
+
+  /** Return the per-phase instrumentation, or null if it is off. */
+  public Instrumentation getInstrumentation() {
+    return instrumentation;
+  }
+
+  /**
+   * Time every phase of each generation and publish the results through JFR events and JMX. When
+   * off, the generation loop only pays a null check per phase.
+   *
+   * @param instrumentation instrumentation to record into, or null to turn timing off
+   */
+  public void setInstrumentation(Instrumentation instrumentation) {
+    this.instrumentation = instrumentation;
+  }
+
+  /** Return the all-time hall of fame, or null if it is disabled. */
+  public HallOfFame getHallOfFame() {
+    return hallOfFame;
+  }
+
+  /**
+   * Keep the given number of fittest distinct chromosomes seen across all generations and restarts
+   * of this engine. The hall of fame is cleared when the fitness function changes.
+   *
+   * @param capacity number of entries, or 0 to disable the hall of fame
+   */
+  public void setHallOfFameSize(int capacity) {
+    hallOfFame = (capacity > 0) ? new HallOfFame(capacity) : null;
+    if (hallOfFame != null) for (Individual ind : population) hallOfFame.offer(ind);
+  }
+
+  /** Return whether exact duplicate children are replaced before evaluation. */
+  public boolean isReplaceDuplicates() {
+    return replaceDuplicates;
+  }
+
+  /**
+   * Replace children whose chromosome already occurs earlier in the same generation with fresh
+   * random individuals before they are evaluated.
+   *
+   * @param replaceDuplicates true to enable duplicate elimination
+   */
+  public void setReplaceDuplicates(boolean replaceDuplicates) {
+    this.replaceDuplicates = replaceDuplicates;
+  }
+
+  /**
+   * Return how many individuals have been scored since construction, whether by a fitness function
+   * call, by delta fitness during breeding or by a cache hit. Every generation adds the population
+   * size.
+   */
+  public long getEvaluations() {
+    return evaluations;
+  }
+
+  /** Return how many duplicate children have been replaced since construction. */
+  public long getDuplicatesReplaced() {
+    return duplicatesReplaced;
+  }
+
+  /** Return whether generations are bred into two preallocated, alternating buffers. */
+  public boolean isDoubleBuffered() {
+    return doubleBuffered;
+  }
+
+  /**
+   * Breed each generation in place into the buffer of the generation before last instead of a new
+   * one. After warm-up a sequential generation then allocates nothing, unless the fitness cache,
+   * duplicate replacement or the hall of fame is enabled. Individuals returned by {@link
+   * #getPopulation} are views that get overwritten two generations later, so callers must copy
+   * whatever they keep.
+   *
+   * @param doubleBuffered true to reuse population buffers
+   */
+  public void setDoubleBuffered(boolean doubleBuffered) {
+    this.doubleBuffered = doubleBuffered;
+    if (!doubleBuffered) spareStore = null;
+  }
+
   /** Return the current generation counter. */
   public int getGeneration() {
     return generation;
@@ -102,168 +356,681 @@ public class GeneticAlgorithm {
     return (population == null) ? null : population.clone();
   }
 
-  /** Initialize the population with fresh individuals using configured parameters. */
+  /**
+   * Initialize the population with fresh individuals using configured parameters. Without a global
+   * mutation rate the initial per-individual rates come from the run's own stream, so seeded runs
+   * stay reproducible.
+   */
   private void initPopulation() {
-    population = new Individual[populationSize];
+    PopulationStore fresh = new PopulationStore(populationSize, chromosomeLength);
+    SplitMix64 r = sequentialRandom.reseed(SplitMix64.streamSeed(seed, run, 0, -3));
     for (int i = 0; i < populationSize; i++) {
-      Individual ind = new Individual(chromosomeLength);
-      ind.setMutationRate(globalMutationRate);
-      population[i] = ind;
+      double rate = (globalMutationRate > 0) ? globalMutationRate : Individual.randomInitialRate(r);
+      fresh.setMutationRate(i, rate);
+    }
+    adoptPopulation(fresh);
+    evaluate(population);
+    refreshStats();
+  }
+
+  /** Make a filled store the current population; the caller evaluates it. */
+  private void adoptPopulation(PopulationStore adopted) {
+    store = adopted;
+    population = store.views();
+    spareStore = null;
+    scratchChild = new Individual(chromosomeLength);
+    alleleCounts = AlleleCounts.count(population, chromosomeLength, pool);
+    spareCounts = null;
+  }
+
+  /**
+   * Summarize the current population in one pass over the store's fitness and mutation-rate arrays,
+   * offering every individual to the hall of fame on the way. Called whenever the population or its
+   * fitness changed, so that the statistics getters are O(1).
+   */
+  void refreshStats() {
+    int n = store.size();
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    double mean = 0;
+    double squares = 0;
+    double rates = 0;
+    int best = -1;
+    for (int i = 0; i < n; i++) {
+      double f = store.getFitness(i);
+      if (f > max) {
+        max = f;
+        best = i;
+      }
+      if (f < min) min = f;
+      // Welford's update keeps the variance accurate for large, similar fitness values.
+      double d = f - mean;
+      mean += d / (i + 1);
+      squares += d * (f - mean);
+      rates += store.getMutationRate(i);
+      if (hallOfFame != null) hallOfFame.offer(population[i]);
     }
+    minFitness = min;
+    maxFitness = (n == 0) ? 0 : max;
+    meanFitness = (n == 0) ? Double.NaN : mean;
+    fitnessVariance = (n == 0) ? Double.NaN : squares / n;
+    meanMutationRate = rates / n;
+    bestIndex = best;
+  }
+
+  /** Return the statistics of the current generation without rescanning the population. */
+  public GenerationStats getGenerationStats() {
+    return new GenerationStats(
+        generation,
+        minFitness,
+        maxFitness,
+        meanFitness,
+        fitnessVariance,
+        meanMutationRate,
+        bestIndex);
   }
 
-  /** Compute the average fitness across the population. */
+  /** Return the average fitness across the population. */
   public double getAverageFitness() {
-    double sum = 0;
-    for (Individual ind : population) sum += ind.getFitness();
-    return sum / populationSize;
+    return meanFitness;
   }
 
-  /** Return the best fitness value found in the population. */
+  /** Return the best fitness value found in the population, rounded to an integer. */
   public int getBestFitness() {
-    int best = 0;
-    for (Individual ind : population) best = Math.max(best, ind.getFitness());
-    return best;
+    return (int) Math.round(getBestFitnessValue());
   }
 
-  /** Compute a simple diversity measure as normalized Hamming distance across the population. */
+  /** Return the best fitness value found in the population at full precision. */
+  public double getBestFitnessValue() {
+    return maxFitness;
+  }
+
+  /**
+   * Return standalone copies of the fittest individuals, best first, for example to send them to
+   * another island.
+   *
+   * @param count number of individuals, at most the population size
+   * @return copies that stay valid after further generations
+   */
+  public Individual[] getBestIndividuals(int count) {
+    int[] best = store.bestIndices(count);
+    Individual[] copies = new Individual[count];
+    for (int i = 0; i < count; i++) copies[i] = population[best[i]].copy();
+    return copies;
+  }
+
+  /**
+   * Replace the least fit individuals with copies of the given migrants. Migrants keep their
+   * fitness if it was evaluated, so they should come from a population with the same objective.
+   *
+   * @param migrants individuals with this population's chromosome length
+   */
+  public void immigrate(Individual[] migrants) {
+    int count = Math.min(migrants.length, populationSize);
+    int[] worst = store.worstIndices(count);
+    for (int i = 0; i < count; i++) {
+      Individual slot = population[worst[i]];
+      alleleCounts.remove(slot);
+      slot.copyFrom(migrants[i]);
+      alleleCounts.add(slot);
+    }
+    evaluate(population);
+    refreshStats();
+  }
+
+  /** Return the restart counter that, with the seed and generation, names the random streams. */
+  int getRun() {
+    return run;
+  }
+
+  /**
+   * Restore the objective and counters of a checkpointed engine, then evaluate whatever the
+   * snapshot left stale.
+   *
+   * @param fitnessFunction objective of the checkpointed run
+   * @param run restart counter
+   * @param generation generation counter
+   * @param evaluations individuals scored so far
+   */
+  void restoreState(FitnessFunction fitnessFunction, int run, int generation, long evaluations) {
+    this.fitnessFunction = fitnessFunction;
+    this.run = run;
+    this.generation = generation;
+    this.evaluations = evaluations;
+    evaluate(population);
+    refreshStats();
+  }
+
+  /**
+   * Write a binary snapshot of the population, counters and parameters that {@link #loadCheckpoint}
+   * resumes from. See {@link Checkpoint} for what is and is not included.
+   *
+   * @param file destination, replaced atomically
+   * @throws IOException if the file cannot be written
+   */
+  public void saveCheckpoint(Path file) throws IOException {
+    Checkpoint.write(this, file);
+  }
+
+  /**
+   * Resume an engine from a snapshot written by {@link #saveCheckpoint}. Stored fitness values are
+   * trusted, so nothing is re-evaluated.
+   *
+   * @param file snapshot to read
+   * @param fitnessFunction objective the checkpointed run used
+   * @return engine that continues exactly where the checkpointed one stopped
+   * @throws IOException if the file cannot be read or is not a checkpoint
+   */
+  public static GeneticAlgorithm loadCheckpoint(Path file, FitnessFunction fitnessFunction)
+      throws IOException {
+    return Checkpoint.read(file, Objects.requireNonNull(fitnessFunction));
+  }
+
+  /** Return the store of the current population, for engines that work on it in place. */
+  PopulationStore currentStore() {
+    return store;
+  }
+
+  /** Return the live allele counts of the current population. */
+  AlleleCounts liveAlleleCounts() {
+    return alleleCounts;
+  }
+
+  /** Return a copy of the allele counts of the current population. */
+  AlleleCounts copyAlleleCounts() {
+    return alleleCounts.copy();
+  }
+
+  /**
+   * Return the mean pairwise Hamming distance normalized by chromosome length. The value is derived
+   * in O(L) from per-locus allele counts that are maintained while breeding.
+   */
   public double getDiversity() {
-    double totalDistance = 0;
-    int n = population.length;
-    for (int i = 0; i < n; i++) {
-      boolean[] chr1 = population[i].getChromosome();
-      for (int j = i + 1; j < n; j++) {
-        boolean[] chr2 = population[j].getChromosome();
-        int dist = 0;
-        for (int k = 0; k < chromosomeLength; k++) if (chr1[k] != chr2[k]) dist++;
-        totalDistance += dist;
+    return alleleCounts.diversity();
+  }
+
+  /**
+   * Return the fraction of the population carrying a one at a locus.
+   *
+   * @param locus gene index
+   * @return allele frequency
+   */
+  public double getAlleleFrequency(int locus) {
+    return alleleCounts.getFrequency(locus);
+  }
+
+  /**
+   * Evolve the population by one generation using the selection strategy, crossover, and mutation,
+   * notifying the registered listeners.
+   */
+  public void evolveOneGeneration() {
+    evolveOneGeneration(null);
+  }
+
+  /**
+   * Evolve the population by one generation and additionally notify the given listener, for example
+   * a view that only needs the events of this step.
+   *
+   * @param listener extra listener for this generation, may be null
+   * @throws java.util.concurrent.CancellationException if virtual-thread evaluation was cancelled;
+   *     the population is left as it was
+   */
+  public void evolveOneGeneration(EvolutionListener listener) {
+    boolean record = listener != null && listener.wantsOperatorEvents();
+    // Indexed loops keep the steady state free of iterator garbage.
+    for (int l = 0; l < listeners.size(); l++) record |= listeners.get(l).wantsOperatorEvents();
+    OperatorEvents ev = record ? events : null;
+    if (ev != null) ev.reset(generation + 1, populationSize, chromosomeLength);
+    Instrumentation inst = instrumentation;
+    long evaluationsBefore = evaluations;
+    long mark = (inst != null) ? inst.begin(this) : 0;
+
+    PopulationStore next =
+        (spareStore != null) ? spareStore : new PopulationStore(populationSize, chromosomeLength);
+    Individual[] newPop = next.views();
+    int chunks = (populationSize + 2 * PAIRS_PER_CHUNK - 1) / (2 * PAIRS_PER_CHUNK);
+    selection.prepare(
+        store,
+        (populationSize + 1) & ~1,
+        sequentialRandom.reseed(SplitMix64.streamSeed(seed, run, generation + 1, -2)));
+    long prepared = (inst != null) ? System.nanoTime() : 0;
+    long[] nanos = null;
+    if (inst != null) {
+      nanos = operatorNanos;
+      Arrays.fill(nanos, 0);
+    }
+
+    AlleleCounts counts;
+    if (pool == null || chunks == 1) {
+      counts = (spareCounts != null) ? spareCounts : new AlleleCounts(chromosomeLength);
+      counts.clear();
+      for (int c = 0; c < chunks; c++) {
+        breedChunk(c, newPop, ev, chunkRandom(sequentialRandom, c), counts, nanos);
       }
+    } else {
+      BreedTask task = new BreedTask(newPop, ev, 0, chunks, inst != null);
+      counts = pool.invoke(task);
+      if (nanos != null) System.arraycopy(task.nanos, 0, nanos, 0, nanos.length);
+    }
+    if (inst != null) mark = inst.bred(mark, prepared, nanos);
+    if (replaceDuplicates) replaceDuplicates(newPop, counts);
+    if (inst != null) mark = inst.phase(Instrumentation.Phase.DEDUPLICATION, mark);
+    long scored = evaluations;
+    evaluate(newPop);
+    // Children already scored by delta fitness while breeding count as well.
+    evaluations = scored + populationSize;
+    if (inst != null) {
+      long start = mark;
+      mark = inst.phase(Instrumentation.Phase.EVALUATION, mark);
+      inst.evaluated(evaluations - evaluationsBefore, mark - start);
+    }
+
+    spareStore = doubleBuffered ? store : null;
+    store = next;
+    population = newPop;
+    spareCounts = alleleCounts;
+    alleleCounts = counts;
+    generation++;
+    refreshStats();
+    if (inst != null) mark = inst.phase(Instrumentation.Phase.STATISTICS, mark);
+
+    for (int l = 0; l < listeners.size(); l++) listeners.get(l).generationEvolved(this, ev);
+    if (listener != null) listener.generationEvolved(this, ev);
+    if (inst != null) {
+      inst.phase(Instrumentation.Phase.LISTENERS, mark);
+      inst.generationEnded(this, evaluationsBefore);
+    }
+  }
+
+  /**
+   * Evolve a fixed number of generations.
+   *
+   * @param generations number of generations
+   * @return number of generations evolved
+   */
+  public int run(int generations) {
+    return runUntil(TerminationCondition.generations(generations));
+  }
+
+  /**
+   * Evolve until a termination condition is met. The condition is checked before the first
+   * generation, so a run may evolve nothing.
+   *
+   * @param condition when to stop
+   * @return number of generations evolved
+   */
+  public int runUntil(TerminationCondition condition) {
+    return runUntil(condition, 0, null);
+  }
+
+  /**
+   * Evolve until a termination condition is met, reporting progress every {@code progressInterval}
+   * generations and once more when the run ends.
+   *
+   * @param condition when to stop
+   * @param progressInterval generations between progress reports, or 0 to report only at the end
+   * @param progress receives the statistics of the sampled generations, may be null
+   * @return number of generations evolved
+   */
+  public int runUntil(
+      TerminationCondition condition, int progressInterval, Consumer<GenerationStats> progress) {
+    condition.start(this);
+    int evolved = 0;
+    boolean reported = false;
+    while (!condition.isMet(this)) {
+      evolveOneGeneration(null);
+      evolved++;
+      reported = progress != null && progressInterval > 0 && evolved % progressInterval == 0;
+      if (reported) progress.accept(getGenerationStats());
     }
+    if (progress != null && !reported) progress.accept(getGenerationStats());
+    return evolved;
+  }
 
-    return totalDistance / ((n * (n - 1) / 2.0) * chromosomeLength);
+  /** Point a generator at the random stream of one chunk of the generation being bred. */
+  private SplitMix64 chunkRandom(SplitMix64 r, int chunk) {
+    return r.reseed(SplitMix64.streamSeed(seed, run, generation + 1, chunk));
   }
 
   /**
-   * Evolve the population by one generation using tournament selection, crossover, and mutation.
-   * The PopulationPanel is used to visualize crossovers and mutations.
+   * Breed and mutate the offspring pairs of one chunk into {@code newPop}. With a {@link
+   * DecomposableFitness} the children's fitness is derived from the parents' fitness here, so the
+   * evaluation stage can skip them.
    *
-   * @param panel visualization panel used to highlight events
+   * @param chunk chunk index
+   * @param newPop views of the store being built; only this chunk's slots are written
+   * @param ev event sink, or null when nobody listens
+   * @param r random stream of this chunk
+   * @param counts allele counts the finished children are added to
+   * @param nanos operator timings to add to, or null when not instrumented
    */
-  public void evolveOneGeneration(PopulationPanel panel) {
+  private void breedChunk(
+      int chunk,
+      Individual[] newPop,
+      OperatorEvents ev,
+      RandomGenerator r,
+      AlleleCounts counts,
+      long[] nanos) {
+    long chunkStart = (nanos != null) ? System.nanoTime() : 0;
+    int start = chunk * 2 * PAIRS_PER_CHUNK;
+    int end = Math.min(populationSize, start + 2 * PAIRS_PER_CHUNK);
+    DecomposableFitness delta = (fitnessFunction instanceof DecomposableFitness d) ? d : null;
 
-    Individual[] newPop = new Individual[populationSize];
+    for (int i = start; i < end; i += 2) {
+      long drawStart = (nanos != null) ? System.nanoTime() : 0;
+      int slot1 = selection.select(r, i);
+      int slot2 = selection.select(r, i + 1);
+      if (nanos != null) nanos[Instrumentation.DRAW] += System.nanoTime() - drawStart;
+      Individual parent1 = population[slot1];
+      Individual parent2 = population[slot2];
 
-    for (int i = 0; i < populationSize; i += 2) {
+      boolean hasSecond = i + 1 < populationSize;
+      if (ev != null) {
+        ev.recordParents(i, slot1, slot2);
+        if (hasSecond) ev.recordParents(i + 1, slot2, slot1);
+      }
+      Individual child1 = newPop[i];
+      Individual child2 = hasSecond ? newPop[i + 1] : scratchChild;
+      breedPair(parent1, parent2, child1, child2, r, delta, ev, i, hasSecond, nanos);
 
-      Individual parent1 = tournamentSelection();
-      Individual parent2 = tournamentSelection();
+      counts.add(child1);
+      if (hasSecond) counts.add(child2);
+    }
+    if (nanos != null) nanos[Instrumentation.CHUNK] += System.nanoTime() - chunkStart;
+  }
 
-      Individual child1 = new Individual(chromosomeLength);
-      Individual child2 = new Individual(chromosomeLength);
+  /**
+   * Fill two children from two parents by crossover and self-adaptive mutation. With a {@link
+   * DecomposableFitness} and evaluated parents the children's fitness is set from the parents'.
+   *
+   * @param parent1 first parent
+   * @param parent2 second parent
+   * @param child1 first child, overwritten
+   * @param child2 second child, overwritten
+   * @param r random stream
+   * @param delta decomposable objective for incremental fitness, or null
+   * @param ev event sink, or null
+   * @param index population index of the first child for events
+   * @param hasSecond whether the second child is kept and its events recorded
+   * @param nanos operator timings to add crossover and mutation time to, or null
+   */
+  void breedPair(
+      Individual parent1,
+      Individual parent2,
+      Individual child1,
+      Individual child2,
+      RandomGenerator r,
+      DecomposableFitness delta,
+      OperatorEvents ev,
+      int index,
+      boolean hasSecond,
+      long[] nanos) {
+    long crossStart = (nanos != null) ? System.nanoTime() : 0;
+    child1.setMutationRate(parent1.getMutationRate());
+    child2.setMutationRate(parent2.getMutationRate());
 
-      boolean[] crossMask1 = new boolean[chromosomeLength];
-      boolean[] crossMask2 = new boolean[chromosomeLength];
+    boolean doCross = r.nextDouble() < crossoverRate;
 
-      boolean doCross = rand.nextDouble() < crossoverRate;
+    child1.copyGenes(parent1);
+    child2.copyGenes(parent2);
+    double fitness1 = parent1.getFitnessValue();
+    double fitness2 = parent2.getFitnessValue();
 
-      if (doCross) {
-        int point = rand.nextInt(chromosomeLength);
-        for (int j = 0; j < chromosomeLength; j++) {
-          if (j < point) {
-            child1.setGene(j, parent1.getChromosome()[j]);
-            child2.setGene(j, parent2.getChromosome()[j]);
-          } else {
-            child1.setGene(j, parent2.getChromosome()[j]);
-            child2.setGene(j, parent1.getChromosome()[j]);
-            crossMask1[j] = true;
-            crossMask2[j] = true;
-          }
-        }
-      } else {
-        for (int j = 0; j < chromosomeLength; j++) {
-          child1.setGene(j, parent1.getChromosome()[j]);
-          child2.setGene(j, parent2.getChromosome()[j]);
-        }
+    if (doCross) {
+      int point = r.nextInt(chromosomeLength);
+      child1.copyRange(parent2, point, chromosomeLength);
+      child2.copyRange(parent1, point, chromosomeLength);
+      if (delta != null) {
+        double tail1 = delta.rangeValue(parent1, point, chromosomeLength);
+        double tail2 = delta.rangeValue(parent2, point, chromosomeLength);
+        fitness1 += tail2 - tail1;
+        fitness2 += tail1 - tail2;
       }
+      if (ev != null) {
+        ev.recordCrossover(index, point);
+        if (hasSecond) ev.recordCrossover(index + 1, point);
+      }
+    }
 
-      panel.highlightCrossover(i, crossMask1);
-      if (i + 1 < populationSize) panel.highlightCrossover(i + 1, crossMask2);
+    long mutateStart = 0;
+    if (nanos != null) {
+      mutateStart = System.nanoTime();
+      nanos[Instrumentation.CROSS] += mutateStart - crossStart;
+    }
+    fitness1 = mutateSelfAdaptive(child1, parent1, ev, index, r, delta, fitness1);
+    fitness2 =
+        mutateSelfAdaptive(child2, parent2, hasSecond ? ev : null, index + 1, r, delta, fitness2);
 
-      boolean[] mutMask1 = new boolean[chromosomeLength];
-      boolean[] mutMask2 = new boolean[chromosomeLength];
+    if (delta != null && parent1.isEvaluated() && parent2.isEvaluated()) {
+      child1.setFitness(fitness1);
+      child2.setFitness(fitness2);
+    }
+    if (nanos != null) nanos[Instrumentation.MUTATE] += System.nanoTime() - mutateStart;
+  }
 
-      mutateSelfAdaptive(child1, mutMask1, parent1);
-      mutateSelfAdaptive(child2, mutMask2, parent2);
+  /**
+   * Fork/join task that splits a range of chunks until single chunks remain. Each leaf counts the
+   * alleles of its own children, and times its operators when instrumented; counts and timings are
+   * summed on the way back up.
+   */
+  private final class BreedTask extends RecursiveTask<AlleleCounts> {
+    private final Individual[] newPop;
+    private final OperatorEvents ev;
+    private final int from;
+    private final int to;
+    private final long[] nanos;
 
-      child1.evaluateFitness();
-      child2.evaluateFitness();
+    BreedTask(Individual[] newPop, OperatorEvents ev, int from, int to, boolean timed) {
+      this.newPop = newPop;
+      this.ev = ev;
+      this.from = from;
+      this.to = to;
+      this.nanos = timed ? new long[Instrumentation.OPERATOR_TIMINGS] : null;
+    }
 
-      panel.highlightMutations(i, mutMask1);
-      if (i + 1 < populationSize) panel.highlightMutations(i + 1, mutMask2);
+    @Override
+    protected AlleleCounts compute() {
+      if (to - from == 1) {
+        AlleleCounts counts = new AlleleCounts(chromosomeLength);
+        breedChunk(from, newPop, ev, chunkRandom(new SplitMix64(0), from), counts, nanos);
+        return counts;
+      }
+      int mid = (from + to) >>> 1;
+      boolean timed = nanos != null;
+      BreedTask left = new BreedTask(newPop, ev, from, mid, timed);
+      left.fork();
+      BreedTask right = new BreedTask(newPop, ev, mid, to, timed);
+      AlleleCounts counts = right.compute();
+      counts.addAll(left.join());
+      if (timed) {
+        for (int k = 0; k < nanos.length; k++) nanos[k] = left.nanos[k] + right.nanos[k];
+      }
+      return counts;
+    }
+  }
 
-      newPop[i] = child1;
-      if (i + 1 < populationSize) newPop[i + 1] = child2;
+  /**
+   * Replace every child whose chromosome already appeared earlier in the generation with random
+   * genes drawn from a dedicated stream of the generation, keeping its mutation rate and the allele
+   * counts up to date.
+   */
+  private void replaceDuplicates(Individual[] pop, AlleleCounts counts) {
+    HashSet<FitnessCache.Key> seen = new HashSet<>(pop.length * 2);
+    SplitMix64 r = sequentialRandom.reseed(SplitMix64.streamSeed(seed, run, generation + 1, -1));
+    for (Individual ind : pop) {
+      while (!seen.add(FitnessCache.Key.of(ind))) {
+        BitChromosome c = ind.bits();
+        counts.remove(ind);
+        for (int w = 0; w < c.wordCount(); w++) c.setWord(w, r.nextLong());
+        counts.add(ind);
+        ind.invalidateFitness();
+        duplicatesReplaced++;
+      }
     }
+  }
 
-    population = newPop;
-    generation++;
+  /**
+   * Evaluation stage: answer what the cache knows, evaluate each remaining distinct chromosome
+   * once, and remember the new results.
+   */
+  private void evaluate(Individual[] batch) {
+    batch = unevaluated(batch);
+    evaluations += batch.length;
+    if (fitnessCache == null) {
+      evaluateBatch(batch);
+      return;
+    }
+    FitnessCache.Key[] keys = new FitnessCache.Key[batch.length];
+    Map<FitnessCache.Key, Individual> pending = new HashMap<>();
+    List<Individual> misses = new ArrayList<>();
+    for (int i = 0; i < batch.length; i++) {
+      keys[i] = FitnessCache.Key.of(batch[i]);
+      if (pending.containsKey(keys[i])) continue;
+      Double cached = fitnessCache.lookup(keys[i]);
+      if (cached != null) {
+        batch[i].setFitness(cached);
+      } else {
+        pending.put(keys[i], batch[i]);
+        misses.add(batch[i]);
+      }
+    }
+    Individual[] toEvaluate = misses.toArray(new Individual[0]);
+    boolean[] penalized = evaluateBatch(toEvaluate);
+    Set<Individual> timedOut = new HashSet<>();
+    if (penalized != null) {
+      for (int i = 0; i < toEvaluate.length; i++) if (penalized[i]) timedOut.add(toEvaluate[i]);
+    }
+    for (int i = 0; i < batch.length; i++) {
+      Individual first = pending.get(keys[i]);
+      if (first == null) continue;
+      if (first == batch[i]) {
+        // A timeout penalty says nothing about the chromosome, so it is not remembered.
+        if (!timedOut.contains(first)) fitnessCache.put(keys[i], first.getFitnessValue());
+      } else {
+        batch[i].setFitness(first.getFitnessValue());
+      }
+    }
+  }
 
-    updateMutationSlider();
+  /** Return the individuals whose fitness is stale, or the batch itself if that is all of them. */
+  private static Individual[] unevaluated(Individual[] batch) {
+    int stale = 0;
+    for (Individual ind : batch) if (!ind.isEvaluated()) stale++;
+    if (stale == batch.length) return batch;
+    if (stale == 0) return NONE;
+    Individual[] todo = new Individual[stale];
+    int k = 0;
+    for (Individual ind : batch) if (!ind.isEvaluated()) todo[k++] = ind;
+    return todo;
   }
 
-  /** Select an individual using a small tournament and return the winner. */
-  private Individual tournamentSelection() {
-    Individual best = population[rand.nextInt(populationSize)];
-    for (int i = 0; i < 2; i++) {
-      Individual competitor = population[rand.nextInt(populationSize)];
-      if (competitor.getFitness() > best.getFitness()) best = competitor;
+  /**
+   * Score a batch with the fitness function, on virtual threads if that mode is installed, else
+   * split into slices across the pool when parallelism is enabled. Returns which individuals timed
+   * out in virtual-thread mode, or null.
+   */
+  private boolean[] evaluateBatch(Individual[] batch) {
+    boolean[] penalized = null;
+    int threads = getParallelism();
+    if (virtualThreadEvaluation != null) {
+      penalized = virtualThreadEvaluation.evaluateAll(fitnessFunction, batch);
+    } else if (threads == 1 || batch.length < 2) {
+      fitnessFunction.evaluateAll(batch);
+    } else {
+      int leaf = Math.max(1, batch.length / (4 * threads));
+      pool.invoke(new EvaluateTask(batch, 0, batch.length, leaf));
+    }
+    return penalized;
+  }
+
+  /** Fork/join task that evaluates a slice of a generation as one batch once it is small enough. */
+  private final class EvaluateTask extends RecursiveAction {
+    private final Individual[] batch;
+    private final int from;
+    private final int to;
+    private final int leaf;
+
+    EvaluateTask(Individual[] batch, int from, int to, int leaf) {
+      this.batch = batch;
+      this.from = from;
+      this.to = to;
+      this.leaf = leaf;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= leaf) {
+        fitnessFunction.evaluateAll(Arrays.copyOfRange(batch, from, to));
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new EvaluateTask(batch, from, mid, leaf), new EvaluateTask(batch, mid, to, leaf));
     }
-    return best;
   }
 
   /**
-   * Apply self-adaptive mutation to a child using the parent's mutation rate as a base. The mask
-   * array will be set to true for positions that changed.
+   * Apply self-adaptive mutation to a child using the parent's mutation rate as a base. Flipped
+   * loci are sampled by geometric skips, so the cost scales with the number of flips. They are
+   * recorded as events of {@code childIndex} when {@code ev} is non-null, and their fitness
+   * difference is added to {@code fitness} when {@code delta} is non-null.
+   *
+   * @return the child's fitness adjusted for the flipped loci
    */
-  private void mutateSelfAdaptive(Individual child, boolean[] mask, Individual parent) {
+  private double mutateSelfAdaptive(
+      Individual child,
+      Individual parent,
+      OperatorEvents ev,
+      int childIndex,
+      RandomGenerator r,
+      DecomposableFitness delta,
+      double fitness) {
 
     double parentRate = parent.getMutationRate();
 
     double tau = 0.1;
-    double newRate = parentRate * Math.exp(rand.nextGaussian() * tau);
+    double newRate = parentRate * Math.exp(r.nextGaussian() * tau);
     if (newRate < 0.001) newRate = 0.001;
 
     child.setMutationRate(newRate);
 
-    for (int i = 0; i < chromosomeLength; i++) {
-      if (rand.nextDouble() < Math.min(newRate, 1.0)) {
-        child.setGene(i, !child.getChromosome()[i]);
-        mask[i] = true;
+    double logNoFlip = MutationSampler.logNoFlip(newRate);
+    int n = chromosomeLength;
+    for (int i = MutationSampler.next(r, logNoFlip, 0, n);
+        i < n;
+        i = MutationSampler.next(r, logNoFlip, i + 1, n)) {
+      child.flipGene(i);
+      if (ev != null) ev.recordMutation(childIndex, i);
+      if (delta != null) {
+        boolean allele = child.getGene(i);
+        fitness += delta.locusValue(i, allele) - delta.locusValue(i, !allele);
       }
     }
+    return fitness;
   }
 
   /** Restart the GA by reinitializing the population and resetting the generation counter. */
   public void restart() {
     generation = 0;
+    run++;
     initPopulation();
-    updateMutationSlider();
+    for (EvolutionListener l : listeners) l.populationReset(this);
   }
 
-  /** Propagate mutation rate updates to the control panel UI if present. */
-  private void updateMutationSlider() {
-    if (controlPanel != null) controlPanel.updateMutationSlider(this);
+  /**
+   * Register a listener notified of every generation, restart and mutation rate change.
+   *
+   * @param listener listener to add
+   */
+  public void addEvolutionListener(EvolutionListener listener) {
+    listeners.add(listener);
   }
 
   /**
-   * Attach a ControlPanel to this GA instance for UI synchronization.
+   * Unregister a previously added listener.
    *
-   * @param controlPanel control panel to attach
+   * @param listener listener to remove
    */
-  @SuppressFBWarnings("EI_EXPOSE_REP2")
-  public void addControlPanel(ControlPanel controlPanel) {
-    // Store reference to UI control panel; marked transient to avoid exposing internal
-    // state during (de)serialization and to indicate this is a UI-only binding.
-    this.controlPanel = controlPanel;
+  public void removeEvolutionListener(EvolutionListener listener) {
+    listeners.remove(listener);
   }
 }
@@ -0,0 +1,51 @@
+package ga;
+
+import java.util.Map;
+
+/**
+ * Management interface of an {@link Instrumentation}, registered with {@link
+ * Instrumentation#registerMBean} so that JConsole, VisualVM or any JMX client can watch a running
+ * engine. Rates are measured over the interval since the previous read of the same attribute, at
+ * least 100 ms apart.
+ */
+public interface GeneticAlgorithmMXBean {
+
+  /** Return the generation counter of the last instrumented generation. */
+  int getGeneration();
+
+  /** Return the number of generations evolved per second recently. */
+  double getGenerationsPerSecond();
+
+  /** Return the number of individuals scored per second recently. */
+  double getEvaluationsPerSecond();
+
+  /** Return the best fitness of the last instrumented generation. */
+  double getBestFitness();
+
+  /** Return the mean fitness of the last instrumented generation. */
+  double getMeanFitness();
+
+  /** Return the diversity of the last instrumented generation. */
+  double getDiversity();
+
+  /** Return the median latency of every phase in microseconds, keyed by phase name. */
+  Map<String, Double> getPhaseLatencyMedianMicros();
+
+  /** Return the 99th percentile latency of every phase in microseconds, keyed by phase name. */
+  Map<String, Double> getPhaseLatencyP99Micros();
+
+  /** Return the total time spent in every phase in milliseconds, keyed by phase name. */
+  Map<String, Double> getPhaseTotalMillis();
+
+  /**
+   * Return a latency percentile of one phase.
+   *
+   * @param phase phase name as in {@link Instrumentation.Phase}
+   * @param percentile percentile in {@code (0, 100]}
+   * @return latency in microseconds
+   */
+  double getPhaseLatencyMicros(String phase, double percentile);
+
+  /** Forget all histograms, totals, last phase durations and rates. */
+  void reset();
+}
@@ -0,0 +1,125 @@
+package ga;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * All-time record of the fittest distinct chromosomes seen by an engine, bounded to a fixed
+ * capacity. Entries sit in a binary min-heap on fitness, so an offer that does not beat the weakest
+ * entry is rejected in O(1) and an accepted one costs O(log K). Distinctness is decided by {@link
+ * FitnessCache.Key} fingerprints, which are only computed for offers that would enter. Not
+ * thread-safe.
+ */
+public final class HallOfFame {
+  private final Individual[] heap;
+  private final FitnessCache.Key[] keys;
+  private final Set<FitnessCache.Key> present = new HashSet<>();
+  private int size;
+
+  /**
+   * Create an empty hall of fame.
+   *
+   * @param capacity maximum number of entries, at least 1
+   */
+  public HallOfFame(int capacity) {
+    if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+    this.heap = new Individual[capacity];
+    this.keys = new FitnessCache.Key[capacity];
+  }
+
+  /** Return the maximum number of entries. */
+  public int capacity() {
+    return heap.length;
+  }
+
+  /** Return the number of entries. */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Consider an evaluated individual for entry. A copy is stored, so the caller may reuse it.
+   *
+   * @param ind individual to offer
+   * @return true if it entered the hall of fame
+   */
+  public boolean offer(Individual ind) {
+    double f = ind.getFitnessValue();
+    boolean full = size == heap.length;
+    if (full && f <= heap[0].getFitnessValue()) return false;
+    FitnessCache.Key key = FitnessCache.Key.of(ind);
+    if (!present.add(key)) return false;
+    if (full) {
+      // Overwrite the weakest entry in place and let it sink to its new position.
+      present.remove(keys[0]);
+      heap[0].copyFrom(ind);
+      keys[0] = key;
+      siftDown(0);
+    } else {
+      heap[size] = ind.copy();
+      keys[size] = key;
+      siftUp(size++);
+    }
+    return true;
+  }
+
+  /** Return copies of the entries, fittest first. */
+  public Individual[] getIndividuals() {
+    Individual[] copies = new Individual[size];
+    for (int i = 0; i < size; i++) copies[i] = heap[i].copy();
+    Arrays.sort(copies, Comparator.comparingDouble(Individual::getFitnessValue).reversed());
+    return copies;
+  }
+
+  /** Return the best fitness ever offered and accepted, or NaN while empty. */
+  public double getBestFitness() {
+    double best = Double.NaN;
+    for (int i = 0; i < size; i++) {
+      if (!(heap[i].getFitnessValue() <= best)) best = heap[i].getFitnessValue();
+    }
+    return best;
+  }
+
+  /** Forget every entry. */
+  public void clear() {
+    Arrays.fill(heap, 0, size, null);
+    Arrays.fill(keys, 0, size, null);
+    present.clear();
+    size = 0;
+  }
+
+  private void siftUp(int i) {
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (fitness(parent) <= fitness(i)) break;
+      swap(i, parent);
+      i = parent;
+    }
+  }
+
+  private void siftDown(int i) {
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) return;
+      if (child + 1 < size && fitness(child + 1) < fitness(child)) child++;
+      if (fitness(child) >= fitness(i)) return;
+      swap(i, child);
+      i = child;
+    }
+  }
+
+  private double fitness(int i) {
+    return heap[i].getFitnessValue();
+  }
+
+  private void swap(int a, int b) {
+    Individual t = heap[a];
+    heap[a] = heap[b];
+    heap[b] = t;
+    FitnessCache.Key k = keys[a];
+    keys[a] = keys[b];
+    keys[b] = k;
+  }
+}
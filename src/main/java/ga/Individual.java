@@ -1,12 +1,17 @@
 package ga;
 
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
-/** Simple individual representation containing a boolean chromosome and mutation rate. */
+/**
+ * Simple individual representation containing a bit-packed chromosome and mutation rate. An
+ * individual is a view onto one slot of a {@link PopulationStore}; standalone individuals own a
+ * private one-slot store.
+ */
 public class Individual {
-  private boolean[] chromosome;
-  private int fitness;
-  private double mutationRate;
+  private final PopulationStore store;
+  private final int index;
+  private final BitChromosome chromosome;
   private static final Random rand = new Random();
 
   /**
@@ -15,13 +20,9 @@ public class Individual {
    * @param length chromosome length
    */
   public Individual(int length) {
-    chromosome = new boolean[length];
-
-    for (int i = 0; i < length; i++) {
-      chromosome[i] = false;
-    }
-    mutationRate = 0.05 + rand.nextDouble() * 0.20;
-    fitness = 0;
+    this(standaloneStore(length), 0);
+    store.bind(0, this);
+    store.setMutationRate(0, randomInitialRate());
   }
 
   /**
@@ -31,13 +32,46 @@ public class Individual {
    * @param mutationRate initial mutation rate for the individual
    */
   public Individual(boolean[] chromosome, double mutationRate) {
-    this.chromosome = chromosome.clone();
-    this.mutationRate = mutationRate;
+    this(standaloneStore(chromosome.length), 0);
+    store.bind(0, this);
+    for (int i = 0; i < chromosome.length; i++) if (chromosome[i]) this.chromosome.set(i, true);
+    store.setMutationRate(0, mutationRate);
+  }
+
+  /**
+   * Create the view of one slot of a store.
+   *
+   * @param store backing store
+   * @param index slot index
+   */
+  Individual(PopulationStore store, int index) {
+    this.store = store;
+    this.index = index;
+    this.chromosome = store.chromosome(index);
+  }
+
+  private static PopulationStore standaloneStore(int length) {
+    return new PopulationStore(1, length, false);
+  }
+
+  /** Draw the initial mutation rate given to individuals without an explicit one. */
+  static double randomInitialRate() {
+    return randomInitialRate(rand);
+  }
+
+  /**
+   * Draw an initial mutation rate in {@code [0.05, 0.25)} from the given generator.
+   *
+   * @param r source of randomness, for example a seeded engine stream
+   * @return initial mutation rate
+   */
+  static double randomInitialRate(RandomGenerator r) {
+    return 0.05 + r.nextDouble() * 0.20;
   }
 
   /** Get the individual's mutation rate. */
   public double getMutationRate() {
-    return mutationRate;
+    return store.getMutationRate(this.index);
   }
 
   /**
@@ -46,12 +80,32 @@ public class Individual {
    * @param mutationRate new mutation rate
    */
   public void setMutationRate(double mutationRate) {
-    if (mutationRate > 0) this.mutationRate = mutationRate;
+    if (mutationRate > 0) store.setMutationRate(this.index, mutationRate);
   }
 
-  /** Return the chromosome array reference. */
+  /** Return an unpacked copy of the chromosome. Prefer {@link #getGene} in loops. */
   public boolean[] getChromosome() {
-    return chromosome.clone();
+    return chromosome.toBooleanArray();
+  }
+
+  /** Return the number of genes in the chromosome. */
+  public int getLength() {
+    return chromosome.length();
+  }
+
+  /**
+   * Read a single gene without copying the chromosome.
+   *
+   * @param index gene index
+   * @return gene value
+   */
+  public boolean getGene(int index) {
+    return chromosome.get(index);
+  }
+
+  /** Return the packed chromosome backing this individual, for word-level operators. */
+  BitChromosome bits() {
+    return chromosome;
   }
 
   /**
@@ -61,38 +115,143 @@ public class Individual {
    * @param value gene value
    */
   public void setGene(int index, boolean value) {
-    chromosome[index] = value;
+    chromosome.set(index, value);
+    store.invalidate(this.index);
+  }
+
+  /**
+   * Invert a single gene in the chromosome.
+   *
+   * @param index gene index
+   */
+  public void flipGene(int index) {
+    chromosome.flip(index);
+    store.invalidate(this.index);
+  }
+
+  /**
+   * Invert every gene whose position is set in the mask.
+   *
+   * @param mask boolean mask, at most as long as the chromosome
+   * @throws IllegalArgumentException if the mask is longer than the chromosome; no gene is flipped
+   */
+  public void flipGenes(boolean[] mask) {
+    if (mask.length > chromosome.length()) {
+      throw new IllegalArgumentException(
+          "Mask of length " + mask.length + " longer than chromosome of " + chromosome.length());
+    }
+    for (int i = 0; i < mask.length; i++) if (mask[i]) chromosome.flip(i);
+    store.invalidate(this.index);
+  }
+
+  /**
+   * Overwrite the whole chromosome with the genes of another individual of the same length.
+   *
+   * @param src individual to copy genes from
+   */
+  public void copyGenes(Individual src) {
+    chromosome.copyFrom(src.chromosome);
+    store.invalidate(this.index);
   }
 
-  /** Get the cached fitness value. */
+  /**
+   * Overwrite genes in {@code [from, to)} with the genes of another individual of the same length.
+   *
+   * @param src individual to copy genes from
+   * @param from first gene index, inclusive
+   * @param to last gene index, exclusive
+   */
+  public void copyRange(Individual src, int from, int to) {
+    chromosome.copyRange(src.chromosome, from, to);
+    store.invalidate(this.index);
+  }
+
+  /**
+   * Count the genes at which this individual differs from another of the same length.
+   *
+   * @param other individual to compare with
+   * @return Hamming distance
+   */
+  public int hammingDistance(Individual other) {
+    return chromosome.hammingDistance(other.chromosome);
+  }
+
+  /** Get the cached fitness value rounded to an integer, exact for integer objectives. */
   public int getFitness() {
-    return fitness;
+    return (int) Math.round(store.getFitness(this.index));
+  }
+
+  /** Get the cached fitness value at full precision. */
+  public double getFitnessValue() {
+    return store.getFitness(this.index);
   }
 
-  /** Evaluate and cache the fitness for this individual. */
+  /**
+   * Store a fitness computed by a {@link FitnessFunction}.
+   *
+   * @param fitness new fitness value
+   */
+  public void setFitness(double fitness) {
+    store.setFitness(this.index, fitness);
+  }
+
+  /** Return whether the cached fitness matches the current genes. */
+  boolean isEvaluated() {
+    return store.isEvaluated(this.index);
+  }
+
+  /** Mark the cached fitness as stale after the genes were rewritten. */
+  void invalidateFitness() {
+    store.invalidate(this.index);
+  }
+
+  /** Return the store holding this individual's genes and attributes. */
+  PopulationStore store() {
+    return store;
+  }
+
+  /** Return this individual's slot in its store. */
+  int index() {
+    return index;
+  }
+
+  /**
+   * Overwrite genes, mutation rate and cached fitness with those of another individual.
+   *
+   * @param src individual to copy from
+   */
+  void copyFrom(Individual src) {
+    chromosome.copyFrom(src.chromosome);
+    store.setMutationRate(this.index, src.getMutationRate());
+    store.setFitness(this.index, src.getFitnessValue());
+    store.setEvaluated(this.index, src.isEvaluated());
+  }
+
+  /** Evaluate and cache the fitness for this individual as the number of set genes. */
   public void evaluateFitness() {
-    fitness = 0;
-    for (boolean gene : chromosome) {
-      if (gene) fitness++;
-    }
+    setFitness(chromosome.cardinality());
   }
 
   /** Mutate the chromosome using an evolution strategies style self-adaptive mutation rate. */
   public void mutateES() {
-    int n = chromosome.length;
+    int n = chromosome.length();
 
     double tau = 1.0 / Math.sqrt(2 * Math.sqrt(n));
     double tau2 = 1.0 / Math.sqrt(2 * n);
 
-    mutationRate *= Math.exp(tau * rand.nextGaussian() + tau2 * rand.nextGaussian());
+    double mutationRate =
+        getMutationRate() * Math.exp(tau * rand.nextGaussian() + tau2 * rand.nextGaussian());
 
     if (mutationRate < 0.001) mutationRate = 0.001;
+    store.setMutationRate(this.index, mutationRate);
 
-    for (int i = 0; i < n; i++) {
-      if (rand.nextDouble() < Math.min(mutationRate, 1.0)) {
-        chromosome[i] = !chromosome[i];
-      }
+    double logNoFlip = MutationSampler.logNoFlip(mutationRate);
+    for (int i = MutationSampler.next(rand, logNoFlip, 0, n);
+        i < n;
+        i = MutationSampler.next(rand, logNoFlip, i + 1, n)) {
+      chromosome.flip(i);
     }
+    store.invalidate(this.index);
   }
 
   /**
@@ -101,6 +260,9 @@ public class Individual {
    * @return cloned individual instance
    */
   public Individual copy() {
-    return new Individual(chromosome.clone(), mutationRate);
+    Individual c = new Individual(standaloneStore(getLength()), 0);
+    c.store.bind(0, c);
+    c.copyFrom(this);
+    return c;
   }
 }
@@ -0,0 +1,336 @@
+package ga;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per-phase timing of a {@link GeneticAlgorithm}, installed with {@link
+ * GeneticAlgorithm#setInstrumentation}. Every generation the engine reports how long each phase
+ * took; the durations go into running totals and a {@link LatencyHistogram} per phase, are emitted
+ * as JDK Flight Recorder events ({@code ga.Generation}, {@code ga.Phase}, {@code ga.Evaluation})
+ * when a recording enables them, and are exposed over JMX as a {@link GeneticAlgorithmMXBean}.
+ *
+ * <p>Parent draws, crossover and mutation are fused per pair and may run on several threads, so
+ * each breeding chunk sums the time it spends in every operator and the wall time of the breeding
+ * stage is split between {@link Phase#SELECTION}, {@link Phase#CROSSOVER}, {@link Phase#MUTATION}
+ * and {@link Phase#BREEDING} in proportion to those sums.
+ *
+ * <p>Without an instrumentation the engine only pays a null check per phase and pair. Recording is
+ * done on the evolution thread; the MXBean may be read from any thread.
+ */
+public final class Instrumentation implements GeneticAlgorithmMXBean {
+
+  /** Timed phases of a generation, in execution order. */
+  public enum Phase {
+    /** Building the selection strategy's tables and drawing the parents. */
+    SELECTION,
+    /** Copying the parents' genes into the children and crossing them over. */
+    CROSSOVER,
+    /** Self-adaptive mutation of the children, including delta fitness. */
+    MUTATION,
+    /** The rest of breeding: allele counting and fork/join overhead. */
+    BREEDING,
+    /** Replacing duplicate children, if enabled. */
+    DEDUPLICATION,
+    /** Fitness evaluation, including cache lookups. */
+    EVALUATION,
+    /** Swapping generations and computing statistics and the hall of fame. */
+    STATISTICS,
+    /** Listener callbacks, such as UI updates. */
+    LISTENERS
+  }
+
+  /** Index of the parent draw time in a chunk's operator timings. */
+  static final int DRAW = 0;
+
+  /** Index of the crossover time in a chunk's operator timings. */
+  static final int CROSS = 1;
+
+  /** Index of the mutation time in a chunk's operator timings. */
+  static final int MUTATE = 2;
+
+  /** Index of the whole time spent in the chunks, operators included. */
+  static final int CHUNK = 3;
+
+  /** Length of an operator timing array. */
+  static final int OPERATOR_TIMINGS = 4;
+
+  private static final Phase[] PHASES = Phase.values();
+  private static final long RATE_INTERVAL_NANOS = 100_000_000;
+
+  private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+  private final long[] lastPhaseNanos = new long[PHASES.length];
+  private final long[] totalNanos = new long[PHASES.length];
+  private final RateMeter generationRate = new RateMeter();
+  private final RateMeter evaluationRate = new RateMeter();
+  private ObjectName registeredName;
+  private int breeding;
+  private volatile int generation;
+  private volatile long generations;
+  private volatile long evaluations;
+  private volatile double bestFitness;
+  private volatile double meanFitness;
+  private volatile double diversity;
+
+  /** Create an instrumentation with empty histograms. */
+  public Instrumentation() {
+    for (int i = 0; i < PHASES.length; i++) histograms[i] = new LatencyHistogram();
+  }
+
+  /**
+   * Register this instrumentation with the platform MBean server as {@code
+   * ga:type=GeneticAlgorithm,name=<name>}.
+   *
+   * @param name name that distinguishes engines in the same JVM
+   * @throws JMException if the name is taken or invalid
+   */
+  public synchronized void registerMBean(String name) throws JMException {
+    ObjectName objectName =
+        new ObjectName("ga:type=GeneticAlgorithm,name=" + ObjectName.quote(name));
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    registeredName = objectName;
+  }
+
+  /**
+   * Remove this instrumentation from the platform MBean server, if registered.
+   *
+   * @throws JMException if unregistering fails
+   */
+  public synchronized void unregisterMBean() throws JMException {
+    if (registeredName == null) return;
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    if (server.isRegistered(registeredName)) server.unregisterMBean(registeredName);
+    registeredName = null;
+  }
+
+  /**
+   * Mark the start of a generation.
+   *
+   * @param ga engine about to breed its next generation
+   * @return {@link System#nanoTime} at the start of the first phase
+   */
+  long begin(GeneticAlgorithm ga) {
+    breeding = ga.getGeneration() + 1;
+    return System.nanoTime();
+  }
+
+  /**
+   * Record the end of a phase that started at {@code start}.
+   *
+   * @param phase phase that just ended
+   * @param start {@link System#nanoTime} at the start of the phase
+   * @return the current time, which is the start of the next phase
+   */
+  long phase(Phase phase, long start) {
+    long now = System.nanoTime();
+    record(phase, now - start);
+    return now;
+  }
+
+  /**
+   * Record selection and breeding, splitting the breeding stage by the operator time its chunks
+   * measured. Chunk timings are summed over threads, so they are scaled to the stage's wall time.
+   *
+   * @param start {@link System#nanoTime} at the start of selection
+   * @param prepared {@link System#nanoTime} once the selection strategy was prepared and breeding
+   *     began
+   * @param operatorNanos timings merged from all chunks, indexed by {@link #DRAW}, {@link #CROSS},
+   *     {@link #MUTATE} and {@link #CHUNK}
+   * @return the current time, which is the start of the next phase
+   */
+  long bred(long start, long prepared, long[] operatorNanos) {
+    long now = System.nanoTime();
+    long wall = now - prepared;
+    double scale = (operatorNanos[CHUNK] > 0) ? (double) wall / operatorNanos[CHUNK] : 0;
+    // Rounding down keeps the three shares within the wall time.
+    long draw = (long) (operatorNanos[DRAW] * scale);
+    long cross = (long) (operatorNanos[CROSS] * scale);
+    long mutate = (long) (operatorNanos[MUTATE] * scale);
+    record(Phase.SELECTION, prepared - start + draw);
+    record(Phase.CROSSOVER, cross);
+    record(Phase.MUTATION, mutate);
+    record(Phase.BREEDING, wall - draw - cross - mutate);
+    return now;
+  }
+
+  private void record(Phase phase, long nanos) {
+    int i = phase.ordinal();
+    lastPhaseNanos[i] = nanos;
+    totalNanos[i] += nanos;
+    histograms[i].record(nanos);
+    GaEvents.PhaseEvent event = new GaEvents.PhaseEvent();
+    if (event.shouldCommit()) {
+      event.generation = breeding;
+      event.phase = phase.name();
+      event.nanos = nanos;
+      event.commit();
+    }
+  }
+
+  /**
+   * Record that evaluation of a generation took the given time for the given number of children.
+   *
+   * @param calls children scored
+   * @param nanos time spent evaluating
+   */
+  void evaluated(long calls, long nanos) {
+    GaEvents.EvaluationEvent event = new GaEvents.EvaluationEvent();
+    if (event.shouldCommit()) {
+      event.generation = breeding;
+      event.evaluations = calls;
+      event.nanos = nanos;
+      event.commit();
+    }
+  }
+
+  /**
+   * Record the end of a generation and publish the engine's state to the MXBean.
+   *
+   * @param ga engine being timed
+   * @param evaluationsBefore evaluation count at the start of the generation
+   */
+  void generationEnded(GeneticAlgorithm ga, long evaluationsBefore) {
+    long calls = ga.getEvaluations() - evaluationsBefore;
+    generation = ga.getGeneration();
+    generations++;
+    evaluations += calls;
+    bestFitness = ga.getBestFitnessValue();
+    meanFitness = ga.getAverageFitness();
+    diversity = ga.getDiversity();
+    GaEvents.GenerationEvent event = new GaEvents.GenerationEvent();
+    if (event.shouldCommit()) {
+      event.generation = generation;
+      event.bestFitness = bestFitness;
+      event.meanFitness = meanFitness;
+      event.evaluations = calls;
+      event.commit();
+    }
+  }
+
+  /**
+   * Return how long a phase took in the last instrumented generation.
+   *
+   * @param phase phase
+   * @return duration in nanoseconds
+   */
+  public long getLastPhaseNanos(Phase phase) {
+    return lastPhaseNanos[phase.ordinal()];
+  }
+
+  /**
+   * Return the total time spent in a phase since creation or the last reset.
+   *
+   * @param phase phase
+   * @return duration in nanoseconds
+   */
+  public long getTotalPhaseNanos(Phase phase) {
+    return totalNanos[phase.ordinal()];
+  }
+
+  /**
+   * Return a latency percentile of a phase.
+   *
+   * @param phase phase
+   * @param percentile percentile in {@code (0, 100]}
+   * @return upper bound of the percentile in nanoseconds
+   */
+  public long getPhasePercentileNanos(Phase phase, double percentile) {
+    return histograms[phase.ordinal()].percentile(percentile);
+  }
+
+  @Override
+  public int getGeneration() {
+    return generation;
+  }
+
+  @Override
+  public double getGenerationsPerSecond() {
+    return generationRate.rate(generations);
+  }
+
+  @Override
+  public double getEvaluationsPerSecond() {
+    return evaluationRate.rate(evaluations);
+  }
+
+  @Override
+  public double getBestFitness() {
+    return bestFitness;
+  }
+
+  @Override
+  public double getMeanFitness() {
+    return meanFitness;
+  }
+
+  @Override
+  public double getDiversity() {
+    return diversity;
+  }
+
+  @Override
+  public Map<String, Double> getPhaseLatencyMedianMicros() {
+    return perPhase(p -> getPhasePercentileNanos(p, 50), 1e-3);
+  }
+
+  @Override
+  public Map<String, Double> getPhaseLatencyP99Micros() {
+    return perPhase(p -> getPhasePercentileNanos(p, 99), 1e-3);
+  }
+
+  @Override
+  public Map<String, Double> getPhaseTotalMillis() {
+    return perPhase(this::getTotalPhaseNanos, 1e-6);
+  }
+
+  @Override
+  public double getPhaseLatencyMicros(String phase, double percentile) {
+    return getPhasePercentileNanos(Phase.valueOf(phase), percentile) * 1e-3;
+  }
+
+  @Override
+  public void reset() {
+    for (int i = 0; i < PHASES.length; i++) {
+      histograms[i].reset();
+      lastPhaseNanos[i] = 0;
+      totalNanos[i] = 0;
+    }
+    generationRate.reset(generations);
+    evaluationRate.reset(evaluations);
+  }
+
+  private Map<String, Double> perPhase(ToLongFunction<Phase> nanos, double scale) {
+    Map<String, Double> values = new LinkedHashMap<>();
+    for (Phase p : PHASES) values.put(p.name(), nanos.applyAsLong(p) * scale);
+    return values;
+  }
+
+  /** Rate of a growing counter over the interval since the previous read. */
+  private static final class RateMeter {
+    private long lastNanos = System.nanoTime();
+    private long lastCount;
+    private double rate;
+
+    synchronized double rate(long count) {
+      long now = System.nanoTime();
+      if (now - lastNanos >= RATE_INTERVAL_NANOS) {
+        rate = (count - lastCount) * 1e9 / (now - lastNanos);
+        lastNanos = now;
+        lastCount = count;
+      }
+      return rate;
+    }
+
+    /** Start a new interval at the current count and forget the last rate. */
+    synchronized void reset(long count) {
+      lastNanos = System.nanoTime();
+      lastCount = count;
+      rate = 0;
+    }
+  }
+}
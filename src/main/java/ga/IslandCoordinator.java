@@ -0,0 +1,243 @@
+package ga;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Coordinator of a multi-process island model. {@link IslandNode}s connect and announce the port
+ * they accept migrants on; once every island has a node, each node is sent its island index, the
+ * engine settings and the migration address of every other island. Afterwards the nodes migrate
+ * directly to each other and only report their statistics here.
+ *
+ * <p>Run standalone with {@code java ga.IslandCoordinator <port> <islands> <populationSize>
+ * <chromosomeLength> <generations> [seed]}, then start one {@code java ga.IslandNode <host> <port>}
+ * per island.
+ */
+public final class IslandCoordinator implements AutoCloseable {
+
+  /**
+   * Latest statistics reported by one island.
+   *
+   * @param island island index
+   * @param generation generations finished
+   * @param bestFitness best fitness on the island
+   * @param averageFitness mean fitness on the island
+   * @param diversity normalized mean pairwise Hamming distance on the island
+   */
+  public record IslandStats(
+      int island, int generation, double bestFitness, double averageFitness, double diversity) {}
+
+  private final int islandCount;
+  private final int populationSize;
+  private final int chromosomeLength;
+  private final int generations;
+  private final long seed;
+  private double mutationRate = 0.01;
+  private double crossoverRate = 0.7;
+  private IslandModel.Topology topology = IslandModel.Topology.RING;
+  private int migrationInterval = 10;
+  private int migrants = 2;
+  private final List<FrameChannel> nodes = new ArrayList<>();
+  private final List<InetSocketAddress> migrationAddresses = new ArrayList<>();
+  private final IslandStats[] stats;
+  private MigrationTransport transport;
+
+  /**
+   * Create a coordinator; call {@link #start} to accept nodes.
+   *
+   * @param islandCount number of islands, one per node
+   * @param populationSize individuals per island
+   * @param chromosomeLength genes per individual
+   * @param generations generations each island evolves
+   * @param seed master seed of the model
+   */
+  public IslandCoordinator(
+      int islandCount, int populationSize, int chromosomeLength, int generations, long seed) {
+    if (islandCount < 1) throw new IllegalArgumentException("islandCount must be positive");
+    this.islandCount = islandCount;
+    this.populationSize = populationSize;
+    this.chromosomeLength = chromosomeLength;
+    this.generations = generations;
+    this.seed = seed;
+    this.stats = new IslandStats[islandCount];
+  }
+
+  /**
+   * Set the engine's initial mutation and crossover rates. Must be called before {@link #start}.
+   *
+   * @param mutationRate initial global mutation rate
+   * @param crossoverRate crossover probability
+   */
+  public void setRates(double mutationRate, double crossoverRate) {
+    this.mutationRate = mutationRate;
+    this.crossoverRate = crossoverRate;
+  }
+
+  /**
+   * Configure migration. Must be called before {@link #start}.
+   *
+   * @param topology where migrants go
+   * @param interval generations between migrations, at least 1
+   * @param count migrants per migration and neighbour
+   */
+  public void setMigration(IslandModel.Topology topology, int interval, int count) {
+    if (interval < 1) throw new IllegalArgumentException("interval must be positive");
+    this.topology = topology;
+    this.migrationInterval = interval;
+    this.migrants = count;
+  }
+
+  /**
+   * Start accepting nodes.
+   *
+   * @param address local address; port 0 picks a free port
+   * @return the bound address nodes should connect to
+   * @throws IOException if the address cannot be bound
+   */
+  public InetSocketAddress start(InetSocketAddress address) throws IOException {
+    transport = new MigrationTransport(new Handler(), 1 << 20);
+    InetSocketAddress bound = transport.listen(address);
+    transport.start();
+    return bound;
+  }
+
+  /**
+   * Return the latest statistics of an island.
+   *
+   * @param island island index
+   * @return generation, best and average fitness and diversity, or null before the first report
+   */
+  public synchronized IslandStats getIslandStats(int island) {
+    return stats[island];
+  }
+
+  /** Return the number of islands. */
+  public int getIslandCount() {
+    return islandCount;
+  }
+
+  /** Return the best fitness reported by any island, or negative infinity before any report. */
+  public synchronized double getBestFitness() {
+    double best = Double.NEGATIVE_INFINITY;
+    for (IslandStats s : stats) if (s != null) best = Math.max(best, s.bestFitness());
+    return best;
+  }
+
+  /**
+   * Wait until every island has reported at least the given generation.
+   *
+   * @param generation generation to wait for
+   * @param timeoutMillis maximum time to wait
+   * @return true if all islands got there in time
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public synchronized boolean awaitGeneration(int generation, long timeoutMillis)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (!allReached(generation)) {
+      long left = deadline - System.currentTimeMillis();
+      if (left <= 0) return false;
+      wait(left);
+    }
+    return true;
+  }
+
+  private boolean allReached(int generation) {
+    for (IslandStats s : stats) if (s == null || s.generation() < generation) return false;
+    return true;
+  }
+
+  /** Stop the coordinator and close every node connection. */
+  @Override
+  public void close() {
+    if (transport != null) transport.close();
+  }
+
+  /** Handles HELLO and STATS frames on the transport's I/O thread. */
+  private final class Handler implements MigrationTransport.FrameHandler {
+    @Override
+    public void onFrame(FrameChannel from, byte type, ByteBuffer payload) {
+      if (type == IslandProtocol.HELLO) {
+        hello(from, IslandProtocol.readHello(payload));
+      } else if (type == IslandProtocol.STATS) {
+        IslandStats s = IslandProtocol.readStats(payload);
+        synchronized (IslandCoordinator.this) {
+          if (s.island() >= 0 && s.island() < islandCount) stats[s.island()] = s;
+          IslandCoordinator.this.notifyAll();
+        }
+      }
+    }
+
+    private void hello(FrameChannel from, int migrationPort) {
+      if (nodes.size() == islandCount) {
+        from.close();
+        return;
+      }
+      String host;
+      try {
+        host = ((InetSocketAddress) from.channel().getRemoteAddress()).getHostString();
+      } catch (IOException e) {
+        from.close();
+        return;
+      }
+      nodes.add(from);
+      migrationAddresses.add(InetSocketAddress.createUnresolved(host, migrationPort));
+      if (nodes.size() < islandCount) return;
+
+      InetSocketAddress[] peers = migrationAddresses.toArray(new InetSocketAddress[0]);
+      for (int i = 0; i < islandCount; i++) {
+        nodes
+            .get(i)
+            .enqueue(
+                IslandProtocol.assign(
+                    new IslandProtocol.Assignment(
+                        i,
+                        seed,
+                        populationSize,
+                        chromosomeLength,
+                        mutationRate,
+                        crossoverRate,
+                        generations,
+                        topology,
+                        migrationInterval,
+                        migrants,
+                        peers)));
+      }
+    }
+  }
+
+  /**
+   * Run a coordinator from the command line and print the islands' progress once a second until
+   * they have all finished.
+   *
+   * @param args port, islands, population size, chromosome length, generations and optional seed
+   * @throws Exception if the coordinator cannot start
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length < 5) {
+      System.err.println(
+          "usage: IslandCoordinator <port> <islands> <populationSize> <chromosomeLength>"
+              + " <generations> [seed]");
+      System.exit(2);
+    }
+    int islands = Integer.parseInt(args[1]);
+    int generations = Integer.parseInt(args[4]);
+    long seed = (args.length > 5) ? Long.parseLong(args[5]) : System.nanoTime();
+    try (IslandCoordinator c =
+        new IslandCoordinator(
+            islands, Integer.parseInt(args[2]), Integer.parseInt(args[3]), generations, seed)) {
+      InetSocketAddress bound = c.start(new InetSocketAddress(Integer.parseInt(args[0])));
+      System.out.println("Waiting for " + islands + " islands on " + bound);
+      while (!c.awaitGeneration(generations, 1000)) {
+        for (int i = 0; i < islands; i++) {
+          IslandStats s = c.getIslandStats(i);
+          if (s != null) System.out.println(s);
+        }
+      }
+      System.out.println("Best fitness: " + c.getBestFitness());
+    }
+  }
+}
@@ -0,0 +1,326 @@
+package ga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Island model: several {@link GeneticAlgorithm} populations evolving side by side, each on its own
+ * thread. Every {@code migrationInterval} generations an island sends copies of its best {@code
+ * migrants} individuals to its neighbours in the {@link Topology}, where they replace the least fit
+ * individuals. Migrants travel through lock-free bounded {@link MigrationQueue}s, so a slow island
+ * never blocks a fast one; migrants that find a full queue are dropped and counted.
+ *
+ * <p>Each island publishes an immutable snapshot after every generation, so the aggregate
+ * statistics can be read from any thread while the islands keep running.
+ */
+public final class IslandModel {
+
+  /** Which islands receive the migrants of an island. */
+  public enum Topology {
+    /** Island {@code i} sends to island {@code i + 1}, wrapping around. */
+    RING,
+    /** Every island sends to every other island. */
+    FULLY_CONNECTED,
+    /** Each migration goes to one other island drawn at random. */
+    RANDOM
+  }
+
+  /** Statistics of one island as of its last finished generation. */
+  private record Snapshot(int generation, double best, double average, AlleleCounts counts) {}
+
+  private final GeneticAlgorithm[] islands;
+  private final long seed;
+  private final AtomicReferenceArray<Snapshot> snapshots;
+  private final LongAdder migrantsSent = new LongAdder();
+  private final LongAdder migrantsDropped = new LongAdder();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private Topology topology = Topology.RING;
+  private int migrationInterval = 10;
+  private int migrants = 2;
+  private MigrationQueue[] inboxes;
+  private Thread[] threads;
+  private volatile boolean running;
+
+  /**
+   * Create islands of identical configuration, each seeded from its own stream of the master seed.
+   *
+   * @param islandCount number of islands, at least 1
+   * @param populationSize individuals per island
+   * @param chromosomeLength length of each individual's chromosome
+   * @param mutationRate initial global mutation rate
+   * @param crossoverRate crossover probability
+   * @param seed master seed
+   */
+  public IslandModel(
+      int islandCount,
+      int populationSize,
+      int chromosomeLength,
+      double mutationRate,
+      double crossoverRate,
+      long seed) {
+    if (islandCount < 1) throw new IllegalArgumentException("islandCount must be positive");
+    this.seed = seed;
+    this.islands = new GeneticAlgorithm[islandCount];
+    this.snapshots = new AtomicReferenceArray<>(islandCount);
+    for (int i = 0; i < islandCount; i++) {
+      long islandSeed = SplitMix64.streamSeed(seed, 0, 0, i);
+      islands[i] =
+          new GeneticAlgorithm(
+              populationSize, chromosomeLength, mutationRate, crossoverRate, islandSeed);
+      publish(i);
+    }
+  }
+
+  /** Return the number of islands. */
+  public int getIslandCount() {
+    return islands.length;
+  }
+
+  /**
+   * Return one island, for example to set its fitness function. Islands must only be touched
+   * directly while the model is not running.
+   *
+   * @param index island index
+   * @return the island's engine
+   */
+  public GeneticAlgorithm getIsland(int index) {
+    return islands[index];
+  }
+
+  /** Return the migration topology. */
+  public Topology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Set where migrants go; takes effect on the next start.
+   *
+   * @param topology migration topology
+   */
+  public void setTopology(Topology topology) {
+    checkStopped();
+    this.topology = topology;
+  }
+
+  /** Return the number of generations between migrations. */
+  public int getMigrationInterval() {
+    return migrationInterval;
+  }
+
+  /**
+   * Set the number of generations between migrations; takes effect on the next start.
+   *
+   * @param generations migration interval, at least 1
+   */
+  public void setMigrationInterval(int generations) {
+    checkStopped();
+    if (generations < 1) throw new IllegalArgumentException("interval must be positive");
+    this.migrationInterval = generations;
+  }
+
+  /** Return how many individuals each island sends per migration and neighbour. */
+  public int getMigrants() {
+    return migrants;
+  }
+
+  /**
+   * Set how many of its best individuals an island sends per migration; takes effect on the next
+   * start.
+   *
+   * @param count migrants per neighbour, 0 disables migration
+   */
+  public void setMigrants(int count) {
+    checkStopped();
+    if (count < 0) throw new IllegalArgumentException("count must not be negative");
+    this.migrants = count;
+  }
+
+  /**
+   * Evolve every island by the given number of generations in parallel and wait for all of them.
+   *
+   * @param generations generations per island
+   * @throws InterruptedException if interrupted while waiting; the islands are stopped first
+   */
+  public void evolve(int generations) throws InterruptedException {
+    launch(generations);
+    try {
+      join();
+    } catch (InterruptedException e) {
+      stop();
+      throw e;
+    }
+  }
+
+  /** Start evolving every island in the background until {@link #stop} is called. */
+  public void start() {
+    launch(Long.MAX_VALUE);
+  }
+
+  /**
+   * Ask every island to finish its current generation and wait until all have stopped.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void stop() throws InterruptedException {
+    running = false;
+    join();
+  }
+
+  /** Return whether the islands are evolving. */
+  public boolean isRunning() {
+    return threads != null;
+  }
+
+  /** Return the highest fitness on any island. */
+  public double getBestFitness() {
+    double best = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < islands.length; i++) best = Math.max(best, snapshots.get(i).best());
+    return best;
+  }
+
+  /** Return the mean fitness over all individuals of all islands. */
+  public double getAverageFitness() {
+    double sum = 0;
+    long individuals = 0;
+    for (int i = 0; i < islands.length; i++) {
+      Snapshot s = snapshots.get(i);
+      sum += s.average() * s.counts().getIndividuals();
+      individuals += s.counts().getIndividuals();
+    }
+    return sum / individuals;
+  }
+
+  /**
+   * Return the mean pairwise Hamming distance over the union of all islands, normalized by
+   * chromosome length. Derived from the islands' allele counts, so it costs O(islands × L).
+   */
+  public double getDiversity() {
+    AlleleCounts total = new AlleleCounts(snapshots.get(0).counts().getLength());
+    for (int i = 0; i < islands.length; i++) total.addAll(snapshots.get(i).counts());
+    return total.diversity();
+  }
+
+  /**
+   * Return the number of generations an island has finished.
+   *
+   * @param index island index
+   * @return generation counter of that island
+   */
+  public int getIslandGeneration(int index) {
+    return snapshots.get(index).generation();
+  }
+
+  /**
+   * Return the best fitness of one island.
+   *
+   * @param index island index
+   * @return best fitness as of the island's last generation
+   */
+  public double getIslandBestFitness(int index) {
+    return snapshots.get(index).best();
+  }
+
+  /** Return how many migrants were delivered to another island's queue. */
+  public long getMigrantsSent() {
+    return migrantsSent.sum();
+  }
+
+  /** Return how many migrants were dropped because the receiving queue was full. */
+  public long getMigrantsDropped() {
+    return migrantsDropped.sum();
+  }
+
+  private void launch(long generations) {
+    checkStopped();
+    failure.set(null);
+    int degree = (topology == Topology.RING) ? 1 : islands.length - 1;
+    inboxes = new MigrationQueue[islands.length];
+    for (int i = 0; i < islands.length; i++) {
+      inboxes[i] = new MigrationQueue(Math.max(1, 2 * degree * migrants));
+    }
+    running = true;
+    threads = new Thread[islands.length];
+    for (int i = 0; i < islands.length; i++) {
+      int island = i;
+      threads[i] = new Thread(() -> runIsland(island, generations), "island-" + i);
+      threads[i].setDaemon(true);
+      threads[i].start();
+    }
+  }
+
+  private void join() throws InterruptedException {
+    if (threads == null) return;
+    for (Thread t : threads) t.join();
+    threads = null;
+    running = false;
+    Throwable t = failure.get();
+    if (t != null) throw new IllegalStateException("Island failed", t);
+  }
+
+  private void checkStopped() {
+    if (threads != null) throw new IllegalStateException("Island model is running");
+  }
+
+  /** Body of one island's thread: receive, evolve, send and publish until done or stopped. */
+  private void runIsland(int index, long generations) {
+    GeneticAlgorithm ga = islands[index];
+    SplitMix64 r = new SplitMix64(SplitMix64.streamSeed(seed, 1, 0, index));
+    List<Individual> arrivals = new ArrayList<>();
+    try {
+      for (long g = 0; g < generations && running; g++) {
+        for (Individual m = inboxes[index].poll(); m != null; m = inboxes[index].poll()) {
+          arrivals.add(m);
+        }
+        if (!arrivals.isEmpty()) {
+          ga.immigrate(arrivals.toArray(new Individual[0]));
+          arrivals.clear();
+        }
+        ga.evolveOneGeneration();
+        if (migrants > 0 && ga.getGeneration() % migrationInterval == 0) emigrate(index, r);
+        publish(index);
+      }
+    } catch (Throwable t) {
+      failure.compareAndSet(null, t);
+      running = false;
+    }
+  }
+
+  /** Send copies of the island's best individuals to its neighbours. */
+  private void emigrate(int index, SplitMix64 r) {
+    int n = islands.length;
+    if (n == 1) return;
+    Individual[] best = islands[index].getBestIndividuals(migrants);
+    switch (topology) {
+      case RING -> send(best, (index + 1) % n);
+      case FULLY_CONNECTED -> {
+        for (int target = 0; target < n; target++) if (target != index) send(best, target);
+      }
+      case RANDOM -> {
+        int target = r.nextInt(n - 1);
+        send(best, (target >= index) ? target + 1 : target);
+      }
+    }
+  }
+
+  /** Offer migrants to one island; the copies are shared and never modified afterwards. */
+  private void send(Individual[] best, int target) {
+    for (Individual m : best) {
+      if (inboxes[target].offer(m)) migrantsSent.increment();
+      else migrantsDropped.increment();
+    }
+  }
+
+  private void publish(int index) {
+    GeneticAlgorithm ga = islands[index];
+    snapshots.set(
+        index,
+        new Snapshot(
+            ga.getGeneration(),
+            ga.getBestFitnessValue(),
+            ga.getAverageFitness(),
+            ga.copyAlleleCounts()));
+  }
+}
@@ -0,0 +1,194 @@
+package ga;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One island of a multi-process island model. The node registers with an {@link IslandCoordinator},
+ * receives its island index and settings, and then evolves its own {@link GeneticAlgorithm} on the
+ * calling thread. Migrants are exchanged with the other nodes through a {@link MigrationTransport}:
+ * sending only enqueues a frame and received migrants wait in a lock-free queue until the start of
+ * the next generation, so a slow or dead peer never stalls the generation loop.
+ *
+ * <p>Run standalone with {@code java ga.IslandNode <coordinatorHost> <coordinatorPort>}.
+ */
+public final class IslandNode {
+  /** Cap on unsent bytes per peer; beyond it migrants to that peer are dropped. */
+  private static final long MAX_PENDING_BYTES = 1 << 20;
+
+  private final InetSocketAddress coordinator;
+  private final CompletableFuture<IslandProtocol.Assignment> assignment = new CompletableFuture<>();
+  private final LongAdder migrantsReceived = new LongAdder();
+  private final LongAdder migrantsDropped = new LongAdder();
+  private MigrationQueue inbox;
+  private int chromosomeLength;
+  private volatile GeneticAlgorithm island;
+
+  /**
+   * Create a node that will register with the given coordinator.
+   *
+   * @param coordinator address of the coordinator
+   */
+  public IslandNode(InetSocketAddress coordinator) {
+    this.coordinator = coordinator;
+  }
+
+  /**
+   * Register with the coordinator, evolve the assigned island for the configured number of
+   * generations while migrating, and report statistics along the way.
+   *
+   * @param bindHost local address to accept migrants on, for example {@code "0.0.0.0"}
+   * @param assignTimeoutMillis how long to wait for the coordinator to assign an island
+   * @throws IOException if the coordinator cannot be reached or no island was assigned in time
+   * @throws InterruptedException if interrupted
+   */
+  public void run(String bindHost, long assignTimeoutMillis)
+      throws IOException, InterruptedException {
+    try (MigrationTransport transport = new MigrationTransport(new Handler(), MAX_PENDING_BYTES)) {
+      InetSocketAddress local = transport.listen(new InetSocketAddress(bindHost, 0));
+      transport.start();
+      FrameChannel coordinatorChannel = transport.connect(coordinator);
+      coordinatorChannel.enqueue(IslandProtocol.hello(local.getPort()));
+
+      IslandProtocol.Assignment a = awaitAssignment(assignTimeoutMillis);
+      evolve(a, transport, coordinatorChannel);
+    }
+  }
+
+  /** Return the island once assigned, or null before. Only safe to inspect after {@link #run}. */
+  public GeneticAlgorithm getIsland() {
+    return island;
+  }
+
+  /** Return how many migrants arrived from other nodes. */
+  public long getMigrantsReceived() {
+    return migrantsReceived.sum();
+  }
+
+  /** Return how many outgoing migrant frames were dropped because a peer was slow or dead. */
+  public long getMigrantsDropped() {
+    return migrantsDropped.sum();
+  }
+
+  private IslandProtocol.Assignment awaitAssignment(long timeoutMillis) throws IOException {
+    try {
+      return assignment.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      throw new IOException("No island assigned by " + coordinator, e);
+    } catch (ExecutionException | InterruptedException e) {
+      throw new IOException("Registration with " + coordinator + " failed", e);
+    }
+  }
+
+  private void evolve(
+      IslandProtocol.Assignment a, MigrationTransport transport, FrameChannel coordinatorChannel)
+      throws IOException {
+    GeneticAlgorithm ga =
+        new GeneticAlgorithm(
+            a.populationSize(),
+            a.chromosomeLength(),
+            a.mutationRate(),
+            a.crossoverRate(),
+            SplitMix64.streamSeed(a.seed(), 0, 0, a.island()));
+    island = ga;
+
+    int n = a.peers().length;
+    FrameChannel[] peers = new FrameChannel[n];
+    for (int i = 0; i < n; i++) {
+      boolean neighbour =
+          (a.topology() == IslandModel.Topology.RING) ? i == (a.island() + 1) % n : i != a.island();
+      if (!neighbour) continue;
+      InetSocketAddress p = a.peers()[i];
+      peers[i] = transport.connect(new InetSocketAddress(p.getHostString(), p.getPort()));
+    }
+
+    SplitMix64 r = new SplitMix64(SplitMix64.streamSeed(a.seed(), 1, 0, a.island()));
+    List<Individual> arrivals = new ArrayList<>();
+    for (int g = 0; g < a.generations(); g++) {
+      for (Individual m = inbox.poll(); m != null; m = inbox.poll()) arrivals.add(m);
+      if (!arrivals.isEmpty()) {
+        ga.immigrate(arrivals.toArray(new Individual[0]));
+        arrivals.clear();
+      }
+      ga.evolveOneGeneration();
+
+      boolean migrate = a.migrants() > 0 && ga.getGeneration() % a.migrationInterval() == 0;
+      if (migrate && n > 1) {
+        ByteBuffer frame = IslandProtocol.migrants(ga.getBestIndividuals(a.migrants()));
+        if (a.topology() == IslandModel.Topology.RANDOM) {
+          int target = r.nextInt(n - 1);
+          send(peers[(target >= a.island()) ? target + 1 : target], frame);
+        } else {
+          for (FrameChannel peer : peers) if (peer != null) send(peer, frame.duplicate());
+        }
+      }
+      if (migrate || ga.getGeneration() == a.generations()) {
+        coordinatorChannel.enqueue(
+            IslandProtocol.stats(
+                new IslandCoordinator.IslandStats(
+                    a.island(),
+                    ga.getGeneration(),
+                    ga.getBestFitnessValue(),
+                    ga.getAverageFitness(),
+                    ga.getDiversity())));
+      }
+    }
+  }
+
+  private void send(FrameChannel peer, ByteBuffer frame) {
+    if (!peer.enqueue(frame)) migrantsDropped.increment();
+  }
+
+  /** Handles ASSIGN and MIGRANTS frames on the transport's I/O thread. */
+  private final class Handler implements MigrationTransport.FrameHandler {
+    @Override
+    public void onFrame(FrameChannel from, byte type, ByteBuffer payload) {
+      if (type == IslandProtocol.ASSIGN) {
+        IslandProtocol.Assignment a = IslandProtocol.readAssign(payload);
+        chromosomeLength = a.chromosomeLength();
+        inbox = new MigrationQueue(Math.max(1, 4 * a.peers().length * a.migrants()));
+        assignment.complete(a);
+      } else if (type == IslandProtocol.MIGRANTS && inbox != null) {
+        for (Individual m : IslandProtocol.readMigrants(payload, chromosomeLength)) {
+          if (inbox.offer(m)) migrantsReceived.increment();
+        }
+      }
+    }
+
+    @Override
+    public void onClosed(FrameChannel channel) {
+      assignment.completeExceptionally(new IOException("Connection closed before assignment"));
+    }
+  }
+
+  /**
+   * Run a node from the command line.
+   *
+   * @param args coordinator host and port, optionally the local bind address
+   * @throws Exception if the node fails
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      System.err.println("usage: IslandNode <coordinatorHost> <coordinatorPort> [bindHost]");
+      System.exit(2);
+    }
+    IslandNode node = new IslandNode(new InetSocketAddress(args[0], Integer.parseInt(args[1])));
+    node.run((args.length > 2) ? args[2] : "0.0.0.0", 60_000);
+    GeneticAlgorithm ga = node.getIsland();
+    System.out.println(
+        "Finished "
+            + ga.getGeneration()
+            + " generations, best fitness "
+            + ga.getBestFitnessValue()
+            + ", migrants received "
+            + node.getMigrantsReceived());
+  }
+}
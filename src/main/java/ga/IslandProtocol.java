@@ -0,0 +1,219 @@
+package ga;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format spoken between {@link IslandNode}s and the {@link IslandCoordinator}. Every frame is
+ * a big-endian {@code int} length followed by a one-byte type and the payload; the length counts
+ * the type byte and the payload. Migrants are sent as their packed gene words plus mutation rate
+ * only, so a migrant of length {@code L} costs {@code 8 + 8 * ceil(L / 64)} bytes and is evaluated
+ * again by the receiving island.
+ *
+ * <p>Decoders check every count and length against the bytes actually received and throw {@link
+ * IllegalArgumentException} for a malformed payload, before allocating for it.
+ */
+final class IslandProtocol {
+  /** Node to coordinator: the port the node accepts migrants on. */
+  static final byte HELLO = 1;
+
+  /** Coordinator to node: island index, engine settings and the address of every island. */
+  static final byte ASSIGN = 2;
+
+  /** Node to node: a batch of migrants. */
+  static final byte MIGRANTS = 3;
+
+  /** Node to coordinator: statistics of the node's island. */
+  static final byte STATS = 4;
+
+  /** Largest frame accepted, to reject garbage before allocating for it. */
+  static final int MAX_FRAME = 64 << 20;
+
+  private IslandProtocol() {}
+
+  /**
+   * Settings a coordinator hands to one node.
+   *
+   * @param island index of the node's island
+   * @param seed master seed of the whole model
+   * @param populationSize individuals per island
+   * @param chromosomeLength genes per individual
+   * @param mutationRate initial global mutation rate
+   * @param crossoverRate crossover probability
+   * @param generations generations to evolve
+   * @param topology migration topology
+   * @param migrationInterval generations between migrations
+   * @param migrants individuals sent per migration and neighbour
+   * @param peers migration address of every island, indexed by island
+   */
+  record Assignment(
+      int island,
+      long seed,
+      int populationSize,
+      int chromosomeLength,
+      double mutationRate,
+      double crossoverRate,
+      int generations,
+      IslandModel.Topology topology,
+      int migrationInterval,
+      int migrants,
+      InetSocketAddress[] peers) {}
+
+  /** Encode a HELLO frame. */
+  static ByteBuffer hello(int migrationPort) {
+    ByteBuffer b = frame(HELLO, 4);
+    b.putInt(migrationPort);
+    return b.flip();
+  }
+
+  /** Decode the payload of a HELLO frame into the announced migration port. */
+  static int readHello(ByteBuffer payload) {
+    require(payload, 4);
+    return payload.getInt();
+  }
+
+  /** Encode an ASSIGN frame. */
+  static ByteBuffer assign(Assignment a) {
+    byte[][] hosts = new byte[a.peers().length][];
+    int size = 4 + 8 + 4 + 4 + 8 + 8 + 4 + 1 + 4 + 4 + 4;
+    for (int i = 0; i < hosts.length; i++) {
+      hosts[i] = a.peers()[i].getHostString().getBytes(StandardCharsets.UTF_8);
+      size += 2 + hosts[i].length + 4;
+    }
+    ByteBuffer b = frame(ASSIGN, size);
+    b.putInt(a.island()).putLong(a.seed()).putInt(a.populationSize()).putInt(a.chromosomeLength());
+    b.putDouble(a.mutationRate()).putDouble(a.crossoverRate()).putInt(a.generations());
+    b.put((byte) a.topology().ordinal()).putInt(a.migrationInterval()).putInt(a.migrants());
+    b.putInt(hosts.length);
+    for (int i = 0; i < hosts.length; i++) {
+      b.putShort((short) hosts[i].length).put(hosts[i]).putInt(a.peers()[i].getPort());
+    }
+    return b.flip();
+  }
+
+  /** Decode the payload of an ASSIGN frame. */
+  static Assignment readAssign(ByteBuffer p) {
+    require(p, 4 + 8 + 4 + 4 + 8 + 8 + 4 + 1 + 4 + 4 + 4);
+    int island = p.getInt();
+    long seed = p.getLong();
+    int populationSize = p.getInt();
+    int chromosomeLength = p.getInt();
+    double mutationRate = p.getDouble();
+    double crossoverRate = p.getDouble();
+    int generations = p.getInt();
+    int ordinal = p.get();
+    if (ordinal < 0 || ordinal >= IslandModel.Topology.values().length) {
+      throw new IllegalArgumentException("Unknown topology " + ordinal);
+    }
+    IslandModel.Topology topology = IslandModel.Topology.values()[ordinal];
+    int interval = p.getInt();
+    int migrants = p.getInt();
+    int count = p.getInt();
+    // Every peer takes at least a host length and a port.
+    if (count < 0 || count > p.remaining() / (2 + 4)) {
+      throw new IllegalArgumentException("Bad peer count " + count);
+    }
+    InetSocketAddress[] peers = new InetSocketAddress[count];
+    for (int i = 0; i < peers.length; i++) {
+      require(p, 2);
+      int hostLength = Short.toUnsignedInt(p.getShort());
+      require(p, hostLength + 4);
+      byte[] host = new byte[hostLength];
+      p.get(host);
+      peers[i] =
+          InetSocketAddress.createUnresolved(new String(host, StandardCharsets.UTF_8), p.getInt());
+    }
+    return new Assignment(
+        island,
+        seed,
+        populationSize,
+        chromosomeLength,
+        mutationRate,
+        crossoverRate,
+        generations,
+        topology,
+        interval,
+        migrants,
+        peers);
+  }
+
+  /**
+   * Encode a MIGRANTS frame holding the packed genes and mutation rate of each migrant.
+   *
+   * @param migrants individuals of equal length
+   * @return frame ready to write
+   */
+  static ByteBuffer migrants(Individual[] migrants) {
+    int length = (migrants.length == 0) ? 0 : migrants[0].getLength();
+    int words = BitChromosome.wordsFor(length);
+    ByteBuffer b = frame(MIGRANTS, 8 + migrants.length * (8 + 8 * words));
+    b.putInt(migrants.length).putInt(length);
+    for (Individual m : migrants) {
+      b.putDouble(m.getMutationRate());
+      BitChromosome c = m.bits();
+      for (int w = 0; w < words; w++) b.putLong(c.getWord(w));
+    }
+    return b.flip();
+  }
+
+  /**
+   * Decode the payload of a MIGRANTS frame into standalone, unevaluated individuals.
+   *
+   * @param p payload
+   * @param expectedLength chromosome length of the receiving island
+   * @return the migrants
+   * @throws IllegalArgumentException if the payload is malformed or the migrants have a different
+   *     length than the island
+   */
+  static Individual[] readMigrants(ByteBuffer p, int expectedLength) {
+    require(p, 8);
+    int count = p.getInt();
+    int length = p.getInt();
+    if (length != expectedLength) {
+      throw new IllegalArgumentException(
+          "Migrants of length " + length + " sent to an island of length " + expectedLength);
+    }
+    int words = BitChromosome.wordsFor(length);
+    if (count < 0 || (long) count * (8 + 8L * words) != p.remaining()) {
+      throw new IllegalArgumentException("Bad migrant count " + count);
+    }
+    Individual[] migrants = new Individual[count];
+    for (int i = 0; i < migrants.length; i++) {
+      Individual m = new Individual(length);
+      m.setMutationRate(p.getDouble());
+      BitChromosome c = m.bits();
+      for (int w = 0; w < words; w++) c.setWord(w, p.getLong());
+      migrants[i] = m;
+    }
+    return migrants;
+  }
+
+  /** Encode a STATS frame. */
+  static ByteBuffer stats(IslandCoordinator.IslandStats s) {
+    ByteBuffer b = frame(STATS, 4 + 4 + 8 + 8 + 8);
+    b.putInt(s.island()).putInt(s.generation());
+    b.putDouble(s.bestFitness()).putDouble(s.averageFitness()).putDouble(s.diversity());
+    return b.flip();
+  }
+
+  /** Decode the payload of a STATS frame. */
+  static IslandCoordinator.IslandStats readStats(ByteBuffer p) {
+    require(p, 4 + 4 + 8 + 8 + 8);
+    return new IslandCoordinator.IslandStats(
+        p.getInt(), p.getInt(), p.getDouble(), p.getDouble(), p.getDouble());
+  }
+
+  /** Throw if fewer than the given number of bytes are left in a payload. */
+  private static void require(ByteBuffer p, int bytes) {
+    if (p.remaining() < bytes) {
+      throw new IllegalArgumentException("Truncated payload: " + p.remaining() + " < " + bytes);
+    }
+  }
+
+  /** Allocate a frame and write its header. */
+  private static ByteBuffer frame(byte type, int payloadSize) {
+    ByteBuffer b = ByteBuffer.allocate(4 + 1 + payloadSize);
+    return b.putInt(1 + payloadSize).put(type);
+  }
+}
@@ -0,0 +1,79 @@
+package ga;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue carrying migrants into one island. Any number of islands may {@link
+ * #offer} concurrently; only the owning island calls {@link #poll}. Each slot has a sequence number
+ * (after Vyukov's bounded queue) that tells producers when the slot is free and the consumer when
+ * it is filled, so neither side ever blocks or takes a lock. A full queue rejects the migrant
+ * instead of waiting.
+ */
+final class MigrationQueue {
+  private final Individual[] items;
+  private final AtomicLongArray sequence;
+  private final int mask;
+  private final AtomicLong tail = new AtomicLong();
+  private long head;
+
+  /**
+   * Create an empty queue.
+   *
+   * @param capacity minimum number of migrants held, rounded up to a power of two
+   */
+  MigrationQueue(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+    this.items = new Individual[size];
+    this.sequence = new AtomicLongArray(size);
+    this.mask = size - 1;
+    for (int i = 0; i < size; i++) sequence.set(i, i);
+  }
+
+  /** Return the number of slots. */
+  int capacity() {
+    return items.length;
+  }
+
+  /**
+   * Enqueue a migrant without blocking. Safe to call from several threads.
+   *
+   * @param migrant individual to enqueue; must not be modified afterwards
+   * @return false if the queue was full and the migrant was dropped
+   */
+  boolean offer(Individual migrant) {
+    long pos = tail.get();
+    while (true) {
+      int slot = (int) pos & mask;
+      long diff = sequence.get(slot) - pos;
+      if (diff == 0) {
+        if (tail.compareAndSet(pos, pos + 1)) {
+          items[slot] = migrant;
+          // The volatile write publishes the item to the consumer.
+          sequence.set(slot, pos + 1);
+          return true;
+        }
+        pos = tail.get();
+      } else if (diff < 0) {
+        return false;
+      } else {
+        pos = tail.get();
+      }
+    }
+  }
+
+  /**
+   * Dequeue the oldest migrant. Must only be called by the owning island's thread.
+   *
+   * @return next migrant, or null if none is ready
+   */
+  Individual poll() {
+    int slot = (int) head & mask;
+    if (sequence.get(slot) != head + 1) return null;
+    Individual migrant = items[slot];
+    items[slot] = null;
+    sequence.set(slot, head + items.length);
+    head++;
+    return migrant;
+  }
+}
@@ -0,0 +1,222 @@
+package ga;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Frame transport between island processes. A single I/O thread owns a {@link Selector} and does
+ * every accept, connect, read and write; other threads only {@link FrameChannel#enqueue} complete
+ * frames, which never blocks. Incoming frames are handed to a {@link FrameHandler} on the I/O
+ * thread. A connection that fails is closed and reported once; frames sent to it afterwards are
+ * dropped, so a dead peer costs its senders nothing.
+ */
+final class MigrationTransport implements AutoCloseable {
+
+  /** Receiver of frames and closed connections, called on the I/O thread. */
+  interface FrameHandler {
+
+    /**
+     * Handle one frame. The payload is only valid during the call.
+     *
+     * @param from connection the frame arrived on
+     * @param type frame type
+     * @param payload frame payload
+     */
+    void onFrame(FrameChannel from, byte type, ByteBuffer payload);
+
+    /**
+     * Called once when a connection has been closed by the peer or failed.
+     *
+     * @param channel closed connection
+     */
+    default void onClosed(FrameChannel channel) {}
+  }
+
+  /** Time the I/O thread keeps flushing queued frames after {@link #close}. */
+  private static final long CLOSE_FLUSH_MILLIS = 1000;
+
+  private final FrameHandler handler;
+  private final long maxPendingBytes;
+  private final Selector selector;
+  private final ConcurrentLinkedQueue<FrameChannel> registrations = new ConcurrentLinkedQueue<>();
+  private final List<FrameChannel> channels = new ArrayList<>();
+  private ServerSocketChannel server;
+  private Thread thread;
+  private volatile boolean closing;
+
+  /**
+   * Create a transport; call {@link #start} to begin moving bytes.
+   *
+   * @param handler receiver of incoming frames
+   * @param maxPendingBytes per-connection cap on bytes waiting to be written
+   * @throws IOException if no selector can be opened
+   */
+  MigrationTransport(FrameHandler handler, long maxPendingBytes) throws IOException {
+    this.handler = handler;
+    this.maxPendingBytes = maxPendingBytes;
+    this.selector = Selector.open();
+  }
+
+  /**
+   * Accept connections on the given address. Must be called before {@link #start}.
+   *
+   * @param address local address; port 0 picks a free port
+   * @return the bound address
+   * @throws IOException if the address cannot be bound
+   */
+  InetSocketAddress listen(InetSocketAddress address) throws IOException {
+    server = ServerSocketChannel.open();
+    server.bind(address);
+    server.configureBlocking(false);
+    server.register(selector, SelectionKey.OP_ACCEPT);
+    return (InetSocketAddress) server.getLocalAddress();
+  }
+
+  /**
+   * Start connecting to a peer without waiting. Frames may be enqueued right away; they are sent
+   * once the connection is established, or dropped if it fails.
+   *
+   * @param address peer address
+   * @return the new connection
+   * @throws IOException if no socket can be opened
+   */
+  FrameChannel connect(InetSocketAddress address) throws IOException {
+    SocketChannel channel = SocketChannel.open();
+    channel.configureBlocking(false);
+    FrameChannel fc = new FrameChannel(channel, selector, maxPendingBytes);
+    try {
+      channel.connect(address);
+    } catch (IOException e) {
+      fc.close();
+      return fc;
+    }
+    registrations.add(fc);
+    selector.wakeup();
+    return fc;
+  }
+
+  /** Start the I/O thread. */
+  void start() {
+    thread = new Thread(this::loop, "migration-io");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Flush what is still queued for up to a second, then close every connection and stop the I/O
+   * thread. An interrupt does not cut the bounded wait short; the interrupt flag is restored
+   * afterwards.
+   */
+  @Override
+  public void close() {
+    closing = true;
+    selector.wakeup();
+    boolean interrupted = false;
+    while (thread != null && thread.isAlive()) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) Thread.currentThread().interrupt();
+    for (FrameChannel fc : channels) fc.close();
+    try {
+      if (server != null) server.close();
+      selector.close();
+    } catch (IOException ignored) {
+      // Nothing left to release.
+    }
+  }
+
+  private void loop() {
+    long deadline = Long.MAX_VALUE;
+    while (System.currentTimeMillis() < deadline) {
+      if (closing && deadline == Long.MAX_VALUE) {
+        deadline = System.currentTimeMillis() + CLOSE_FLUSH_MILLIS;
+      }
+      try {
+        selector.select(100);
+      } catch (IOException e) {
+        return;
+      }
+      for (FrameChannel fc = registrations.poll(); fc != null; fc = registrations.poll()) {
+        register(fc, fc.channel().isConnected() ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT);
+      }
+      for (SelectionKey key : selector.selectedKeys()) {
+        if (key.isValid() && key.isAcceptable()) accept();
+        else if (key.isValid()) handle(key);
+      }
+      selector.selectedKeys().clear();
+      boolean idle = flushAll();
+      if (closing && idle) return;
+    }
+  }
+
+  private void accept() {
+    try {
+      SocketChannel channel = server.accept();
+      if (channel == null) return;
+      channel.configureBlocking(false);
+      register(new FrameChannel(channel, selector, maxPendingBytes), SelectionKey.OP_READ);
+    } catch (IOException e) {
+      // A failed accept only affects that peer.
+    }
+  }
+
+  private void register(FrameChannel fc, int ops) {
+    try {
+      fc.channel().register(selector, ops, fc);
+      channels.add(fc);
+    } catch (IOException e) {
+      fail(fc);
+    }
+  }
+
+  private void handle(SelectionKey key) {
+    FrameChannel fc = (FrameChannel) key.attachment();
+    try {
+      if (key.isConnectable()) {
+        fc.channel().finishConnect();
+        key.interestOps(SelectionKey.OP_READ);
+      }
+      if (key.isReadable() && !fc.read(handler)) fail(fc);
+    } catch (IOException e) {
+      fail(fc);
+    }
+  }
+
+  /** Write queued frames of every connected channel; return true once nothing is left. */
+  private boolean flushAll() {
+    boolean idle = true;
+    // Backwards, because a failing channel removes itself.
+    for (int i = channels.size() - 1; i >= 0; i--) {
+      FrameChannel fc = channels.get(i);
+      if (fc.isClosed() || !fc.channel().isConnected() || !fc.hasPending()) continue;
+      SelectionKey key = fc.channel().keyFor(selector);
+      try {
+        boolean done = fc.flush();
+        key.interestOps(done ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        idle &= done;
+      } catch (IOException e) {
+        fail(fc);
+      }
+    }
+    return idle;
+  }
+
+  private void fail(FrameChannel fc) {
+    if (fc.isClosed()) return;
+    fc.close();
+    channels.remove(fc);
+    handler.onClosed(fc);
+  }
+}
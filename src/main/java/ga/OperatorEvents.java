@@ -0,0 +1,159 @@
+package ga;
+
+import java.util.Arrays;
+
+/**
+ * Crossover and mutation events of one generation, indexed by child position in the new population.
+ * Each child has at most one crossover point (genes from that point on came from the other parent)
+ * and a list of mutated loci. Storage is reused from one generation to the next, so recording
+ * allocates only while the buffers are still growing.
+ */
+public final class OperatorEvents {
+  private static final int[] EMPTY = new int[0];
+
+  private int generation;
+  private int size;
+  private int chromosomeLength;
+  private int[] crossoverPoints = EMPTY;
+  private int[] parents = EMPTY;
+  private int[] mutationCounts = EMPTY;
+  private int[][] mutations = new int[0][];
+
+  /** Clear all events and size the buffers for a new generation. */
+  void reset(int generation, int size, int chromosomeLength) {
+    this.generation = generation;
+    this.size = size;
+    this.chromosomeLength = chromosomeLength;
+    if (crossoverPoints.length < size) {
+      crossoverPoints = new int[size];
+      parents = new int[2 * size];
+      mutationCounts = new int[size];
+      mutations = Arrays.copyOf(mutations, size);
+    }
+    Arrays.fill(crossoverPoints, 0, size, -1);
+    Arrays.fill(parents, 0, 2 * size, -1);
+    Arrays.fill(mutationCounts, 0, size, 0);
+  }
+
+  /**
+   * Record the previous-generation slots a child was bred from.
+   *
+   * @param child child index
+   * @param first parent the child's genes before any crossover point came from
+   * @param second parent the genes from the crossover point on came from
+   */
+  void recordParents(int child, int first, int second) {
+    parents[2 * child] = first;
+    parents[2 * child + 1] = second;
+  }
+
+  /** Record that genes of {@code child} from {@code point} on came from the second parent. */
+  void recordCrossover(int child, int point) {
+    crossoverPoints[child] = point;
+  }
+
+  /** Record that {@code locus} of {@code child} was flipped by mutation. */
+  void recordMutation(int child, int locus) {
+    int[] loci = mutations[child];
+    int n = mutationCounts[child];
+    if (loci == null || n == loci.length) {
+      loci = (loci == null) ? new int[8] : Arrays.copyOf(loci, n * 2);
+      mutations[child] = loci;
+    }
+    loci[n] = locus;
+    mutationCounts[child] = n + 1;
+  }
+
+  /** Return the generation number these events produced. */
+  public int getGeneration() {
+    return generation;
+  }
+
+  /** Return the number of children described. */
+  public int size() {
+    return size;
+  }
+
+  /** Return the chromosome length of the children. */
+  public int getChromosomeLength() {
+    return chromosomeLength;
+  }
+
+  /**
+   * Return the slot in the previous generation that a child's leading genes came from.
+   *
+   * @param child child index
+   * @return parent slot, or -1 if unknown
+   */
+  public int getFirstParent(int child) {
+    return parents[2 * child];
+  }
+
+  /**
+   * Return the slot in the previous generation that a crossed-over child's trailing genes came
+   * from.
+   *
+   * @param child child index
+   * @return parent slot, or -1 if unknown
+   */
+  public int getSecondParent(int child) {
+    return parents[2 * child + 1];
+  }
+
+  /**
+   * Return the crossover point of a child.
+   *
+   * @param child child index
+   * @return first gene taken from the other parent, or -1 if the child was not crossed over
+   */
+  public int getCrossoverPoint(int child) {
+    return crossoverPoints[child];
+  }
+
+  /**
+   * Return how many loci of a child were mutated.
+   *
+   * @param child child index
+   * @return mutation count
+   */
+  public int getMutationCount(int child) {
+    return mutationCounts[child];
+  }
+
+  /**
+   * Return one mutated locus of a child, in the order the flips were applied.
+   *
+   * @param child child index
+   * @param k mutation ordinal, below {@link #getMutationCount}
+   * @return mutated gene index
+   */
+  public int getMutation(int child, int k) {
+    if (k >= mutationCounts[child]) throw new IndexOutOfBoundsException("Mutation " + k);
+    return mutations[child][k];
+  }
+
+  /**
+   * Build a boolean mask of the genes a child took from its second parent.
+   *
+   * @param child child index
+   * @return new mask of chromosome length
+   */
+  public boolean[] crossoverMask(int child) {
+    boolean[] mask = new boolean[chromosomeLength];
+    if (crossoverPoints[child] >= 0)
+      Arrays.fill(mask, crossoverPoints[child], chromosomeLength, true);
+    return mask;
+  }
+
+  /**
+   * Build a boolean mask of the genes of a child that were mutated.
+   *
+   * @param child child index
+   * @return new mask of chromosome length
+   */
+  public boolean[] mutationMask(int child) {
+    boolean[] mask = new boolean[chromosomeLength];
+    for (int k = 0; k < mutationCounts[child]; k++) mask[mutations[child][k]] = true;
+    return mask;
+  }
+}
@@ -0,0 +1,398 @@
+package ga;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulk search of the {@code populationSize × mutationRate × crossoverRate} space. Every cell of a
+ * grid or random-search spec is run for a number of replicate seeds, each run being an independent
+ * sequential {@link GeneticAlgorithm}. Runs are spread over a work-stealing {@link ForkJoinPool}
+ * sized to the cores, and each finished run is appended to a CSV results file as one line.
+ *
+ * <p>Runs are submitted replicate by replicate, so an interrupted sweep has covered every cell
+ * about equally. Calling {@link #run} again on the same file resumes it: runs already recorded are
+ * skipped and only the missing ones are executed. A run's seed depends only on the master seed, its
+ * cell index and its replicate, so resumed and parallel sweeps give the same results as an
+ * uninterrupted sequential one. Every line records the run's seed and chromosome length, and a
+ * resume is refused if they disagree with the sweep; the termination cannot be compared, so resume
+ * with the same one.
+ */
+public final class ParameterSweep {
+  static final String HEADER =
+      "cell,replicate,populationSize,mutationRate,crossoverRate,chromosomeLength,seed,"
+          + "bestFitness,generations,generationsToTarget,evaluations,wallMillis";
+
+  /**
+   * One point of the parameter space.
+   *
+   * @param populationSize number of individuals
+   * @param mutationRate initial global mutation rate, or 0 for seeded self-adaptive initial rates
+   * @param crossoverRate crossover probability
+   */
+  public record Cell(int populationSize, double mutationRate, double crossoverRate) {}
+
+  /**
+   * Summary of one finished run.
+   *
+   * @param cell index of the cell in the sweep
+   * @param replicate replicate number within the cell
+   * @param parameters parameters of the cell
+   * @param chromosomeLength chromosome length of the run
+   * @param seed master seed of the run
+   * @param bestFitness best fitness at the end of the run
+   * @param generations generations evolved
+   * @param generationsToTarget first generation reaching the target fitness, or -1 if never
+   * @param evaluations fitness evaluations performed
+   * @param wallMillis wall-clock time of the run
+   */
+  public record Result(
+      int cell,
+      int replicate,
+      Cell parameters,
+      int chromosomeLength,
+      long seed,
+      double bestFitness,
+      int generations,
+      int generationsToTarget,
+      long evaluations,
+      long wallMillis) {}
+
+  private final List<Cell> cells;
+  private final int replicates;
+  private final int chromosomeLength;
+  private final long seed;
+  private final Supplier<TerminationCondition> termination;
+  private FitnessFunction fitnessFunction;
+  private double targetFitness = Double.POSITIVE_INFINITY;
+  private int parallelism = Runtime.getRuntime().availableProcessors();
+  private volatile boolean stopped;
+
+  /**
+   * Create a sweep.
+   *
+   * @param cells parameter points to run, for example from {@link #grid} or {@link #random}
+   * @param replicates number of seeds per cell, at least 1
+   * @param chromosomeLength chromosome length of every run
+   * @param seed master seed from which every run's seed is derived
+   * @param termination creates a fresh stopping rule for each run, since conditions can be stateful
+   */
+  public ParameterSweep(
+      List<Cell> cells,
+      int replicates,
+      int chromosomeLength,
+      long seed,
+      Supplier<TerminationCondition> termination) {
+    if (replicates < 1) throw new IllegalArgumentException("replicates must be positive");
+    this.cells = List.copyOf(cells);
+    this.replicates = replicates;
+    this.chromosomeLength = chromosomeLength;
+    this.seed = seed;
+    this.termination = termination;
+  }
+
+  /**
+   * Build the full cross product of the given values.
+   *
+   * @param populationSizes population sizes to try
+   * @param mutationRates mutation rates to try
+   * @param crossoverRates crossover rates to try
+   * @return one cell per combination
+   */
+  public static List<Cell> grid(
+      int[] populationSizes, double[] mutationRates, double[] crossoverRates) {
+    List<Cell> cells = new ArrayList<>();
+    for (int p : populationSizes) {
+      for (double m : mutationRates) {
+        for (double c : crossoverRates) cells.add(new Cell(p, m, c));
+      }
+    }
+    return cells;
+  }
+
+  /**
+   * Draw cells uniformly from the given ranges. Mutation rates span orders of magnitude, so they
+   * are drawn log-uniformly when the lower bound is positive, and uniformly otherwise.
+   *
+   * @param count number of cells
+   * @param minPopulation smallest population size, inclusive
+   * @param maxPopulation largest population size, inclusive
+   * @param minMutation lowest mutation rate
+   * @param maxMutation highest mutation rate
+   * @param minCrossover lowest crossover rate
+   * @param maxCrossover highest crossover rate
+   * @param seed seed of the draw
+   * @return the drawn cells
+   */
+  public static List<Cell> random(
+      int count,
+      int minPopulation,
+      int maxPopulation,
+      double minMutation,
+      double maxMutation,
+      double minCrossover,
+      double maxCrossover,
+      long seed) {
+    SplitMix64 r = new SplitMix64(seed);
+    List<Cell> cells = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int p = minPopulation + r.nextInt(maxPopulation - minPopulation + 1);
+      double m =
+          (minMutation > 0)
+              ? Math.exp(
+                  Math.log(minMutation) + r.nextDouble() * Math.log(maxMutation / minMutation))
+              : minMutation + r.nextDouble() * (maxMutation - minMutation);
+      double c = minCrossover + r.nextDouble() * (maxCrossover - minCrossover);
+      cells.add(new Cell(p, m, c));
+    }
+    return cells;
+  }
+
+  /** Return the cells of the sweep. */
+  public List<Cell> getCells() {
+    return cells;
+  }
+
+  /**
+   * Set the fitness function of every run; it is shared by concurrent runs and must be thread-safe.
+   * Without one, runs keep the engine's default objective.
+   *
+   * @param fitnessFunction function to maximize, or null for the engine default
+   */
+  public void setFitnessFunction(FitnessFunction fitnessFunction) {
+    this.fitnessFunction = fitnessFunction;
+  }
+
+  /**
+   * Set the fitness whose first attainment is recorded as {@code generationsToTarget}. This does
+   * not stop a run; combine the termination with {@link TerminationCondition#targetFitness} for
+   * that.
+   *
+   * @param targetFitness fitness to reach
+   */
+  public void setTargetFitness(double targetFitness) {
+    this.targetFitness = targetFitness;
+  }
+
+  /**
+   * Set how many runs execute at once; defaults to the number of available processors.
+   *
+   * @param parallelism number of worker threads, at least 1
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism < 1) throw new IllegalArgumentException("parallelism must be positive");
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Ask a running sweep to stop from any thread. Runs in progress are abandoned at their next
+   * generation and not recorded, so a later {@link #run} repeats them.
+   */
+  public void stop() {
+    stopped = true;
+  }
+
+  /**
+   * Execute every run not yet recorded in the results file, appending one line per finished run.
+   *
+   * @param results CSV file to create or resume
+   * @return number of runs executed by this call
+   * @throws IOException if the file cannot be read or written, or belongs to a different sweep
+   * @throws InterruptedException if interrupted; finished runs stay recorded
+   */
+  public int run(Path results) throws IOException, InterruptedException {
+    stopped = false;
+    boolean[] done = new boolean[cells.size() * replicates];
+    if (Files.exists(results)) truncatePartialLine(results);
+    boolean resumed = Files.exists(results) && Files.size(results) > 0;
+    if (resumed) {
+      for (Result r : readResults(results)) {
+        if (r.cell() >= cells.size() || r.replicate() >= replicates) continue;
+        if (!r.parameters().equals(cells.get(r.cell()))) {
+          throw new IOException(results + " was written by a sweep with different cells");
+        }
+        if (r.chromosomeLength() != chromosomeLength) {
+          throw new IOException(
+              results + " was written with chromosome length " + r.chromosomeLength());
+        }
+        if (r.seed() != runSeed(r.cell(), r.replicate())) {
+          throw new IOException(results + " was written by a sweep with a different seed");
+        }
+        done[r.cell() * replicates + r.replicate()] = true;
+      }
+    }
+
+    AtomicInteger executed = new AtomicInteger();
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try (BufferedWriter out =
+        Files.newBufferedWriter(
+            results,
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND,
+            StandardOpenOption.WRITE)) {
+      if (!resumed) {
+        out.write(HEADER);
+        out.newLine();
+        out.flush();
+      }
+      List<Future<?>> runs = new ArrayList<>();
+      for (int rep = 0; rep < replicates; rep++) {
+        for (int cell = 0; cell < cells.size(); cell++) {
+          if (done[cell * replicates + rep]) continue;
+          int c = cell;
+          int r = rep;
+          runs.add(
+              pool.submit(
+                  () -> {
+                    Result result = runOne(c, r);
+                    if (result != null) {
+                      append(out, result);
+                      executed.incrementAndGet();
+                    }
+                  }));
+        }
+      }
+      for (Future<?> f : runs) f.get();
+    } catch (InterruptedException e) {
+      stopped = true;
+      throw e;
+    } catch (ExecutionException e) {
+      stopped = true;
+      if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+      throw new IllegalStateException("Sweep run failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+      pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    return executed.get();
+  }
+
+  /** Evolve one run, or return null if the sweep was stopped first. */
+  private Result runOne(int cell, int replicate) {
+    if (stopped) return null;
+    Cell p = cells.get(cell);
+    long runSeed = runSeed(cell, replicate);
+    long start = System.nanoTime();
+    GeneticAlgorithm ga =
+        new GeneticAlgorithm(
+            p.populationSize(), chromosomeLength, p.mutationRate(), p.crossoverRate(), runSeed);
+    if (fitnessFunction != null) ga.setFitnessFunction(fitnessFunction);
+    TerminationCondition condition = termination.get();
+    condition.start(ga);
+    int toTarget = (ga.getBestFitnessValue() >= targetFitness) ? 0 : -1;
+    while (!condition.isMet(ga)) {
+      if (stopped) return null;
+      ga.evolveOneGeneration();
+      if (toTarget < 0 && ga.getBestFitnessValue() >= targetFitness) toTarget = ga.getGeneration();
+    }
+    return new Result(
+        cell,
+        replicate,
+        p,
+        chromosomeLength,
+        runSeed,
+        ga.getBestFitnessValue(),
+        ga.getGeneration(),
+        toTarget,
+        ga.getEvaluations(),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private long runSeed(int cell, int replicate) {
+    return SplitMix64.streamSeed(seed, cell, replicate, 0);
+  }
+
+  /** Write one result line and flush it, so an interruption never leaves a run half recorded. */
+  private static void append(BufferedWriter out, Result r) {
+    String line =
+        String.format(
+            Locale.ROOT,
+            "%d,%d,%d,%s,%s,%d,%d,%s,%d,%d,%d,%d",
+            r.cell(),
+            r.replicate(),
+            r.parameters().populationSize(),
+            r.parameters().mutationRate(),
+            r.parameters().crossoverRate(),
+            r.chromosomeLength(),
+            r.seed(),
+            r.bestFitness(),
+            r.generations(),
+            r.generationsToTarget(),
+            r.evaluations(),
+            r.wallMillis());
+    synchronized (out) {
+      try {
+        out.write(line);
+        out.newLine();
+        out.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Read the runs recorded in a results file.
+   *
+   * @param results CSV file written by {@link #run}
+   * @return one result per complete line, in file order
+   * @throws IOException if the file cannot be read or is not a sweep results file
+   */
+  public static List<Result> readResults(Path results) throws IOException {
+    List<Result> list = new ArrayList<>();
+    try (BufferedReader in = Files.newBufferedReader(results, StandardCharsets.UTF_8)) {
+      String header = in.readLine();
+      if (!HEADER.equals(header)) throw new IOException(results + " is not a sweep results file");
+      for (String line = in.readLine(); line != null; line = in.readLine()) {
+        if (line.isEmpty()) continue;
+        String[] f = line.split(",");
+        if (f.length != 12) throw new IOException("Malformed line in " + results + ": " + line);
+        try {
+          list.add(
+              new Result(
+                  Integer.parseInt(f[0]),
+                  Integer.parseInt(f[1]),
+                  new Cell(
+                      Integer.parseInt(f[2]), Double.parseDouble(f[3]), Double.parseDouble(f[4])),
+                  Integer.parseInt(f[5]),
+                  Long.parseLong(f[6]),
+                  Double.parseDouble(f[7]),
+                  Integer.parseInt(f[8]),
+                  Integer.parseInt(f[9]),
+                  Long.parseLong(f[10]),
+                  Long.parseLong(f[11])));
+        } catch (RuntimeException e) {
+          throw new IOException("Malformed line in " + results + ": " + line, e);
+        }
+      }
+    }
+    return list;
+  }
+
+  /** Cut a line left incomplete by a process killed mid-write. */
+  private static void truncatePartialLine(Path results) throws IOException {
+    byte[] bytes = Files.readAllBytes(results);
+    int end = bytes.length;
+    while (end > 0 && bytes[end - 1] != '\n') end--;
+    if (end == bytes.length) return;
+    try (FileChannel ch = FileChannel.open(results, StandardOpenOption.WRITE)) {
+      ch.truncate(end);
+    }
+  }
+}
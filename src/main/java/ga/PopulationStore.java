@@ -0,0 +1,235 @@
+package ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Structure-of-arrays storage for a population. Genes of all individuals live in one contiguous
+ * {@code long[]} (individual {@code i} owns words {@code [i * w, (i + 1) * w)}), and fitness,
+ * mutation rate and evaluation state live in parallel primitive arrays indexed by individual.
+ * {@link Individual} objects handed out by {@link #get} are lightweight views onto one slot, so
+ * selection and statistics can run as tight loops over primitive arrays.
+ */
+public final class PopulationStore {
+  private final int size;
+  private final int chromosomeLength;
+  private final int wordsPerIndividual;
+  private final long[] genes;
+  private final double[] fitness;
+  private final double[] mutationRates;
+  private final boolean[] evaluated;
+  private final Individual[] views;
+
+  /**
+   * Create a store of cleared individuals with zero mutation rate and stale fitness.
+   *
+   * @param size number of individuals
+   * @param chromosomeLength genes per individual
+   */
+  public PopulationStore(int size, int chromosomeLength) {
+    this(size, chromosomeLength, true);
+  }
+
+  /** Create a store, building one view per slot unless the caller binds its own. */
+  PopulationStore(int size, int chromosomeLength, boolean createViews) {
+    this.size = size;
+    this.chromosomeLength = chromosomeLength;
+    this.wordsPerIndividual = BitChromosome.wordsFor(chromosomeLength);
+    this.genes = new long[Math.multiplyExact(size, wordsPerIndividual)];
+    this.fitness = new double[size];
+    this.mutationRates = new double[size];
+    this.evaluated = new boolean[size];
+    this.views = new Individual[size];
+    if (createViews) for (int i = 0; i < size; i++) views[i] = new Individual(this, i);
+  }
+
+  /** Register the view of a slot; used by standalone individuals that own a one-slot store. */
+  void bind(int index, Individual view) {
+    views[index] = view;
+  }
+
+  /** Return the number of individuals. */
+  public int size() {
+    return size;
+  }
+
+  /** Return the number of genes per individual. */
+  public int getChromosomeLength() {
+    return chromosomeLength;
+  }
+
+  /**
+   * Return the view of one individual. The same view object is returned on every call.
+   *
+   * @param index individual index
+   * @return view onto that slot
+   */
+  public Individual get(int index) {
+    return views[index];
+  }
+
+  /** Return the internal view array; callers must not modify it. */
+  Individual[] views() {
+    return views;
+  }
+
+  /** Create a chromosome view onto the genes of one slot. */
+  BitChromosome chromosome(int index) {
+    return new BitChromosome(genes, index * wordsPerIndividual, chromosomeLength);
+  }
+
+  /**
+   * Return the cached fitness of one individual.
+   *
+   * @param index individual index
+   * @return fitness value
+   */
+  public double getFitness(int index) {
+    return fitness[index];
+  }
+
+  /**
+   * Store the fitness of one individual and mark it evaluated.
+   *
+   * @param index individual index
+   * @param value fitness value
+   */
+  public void setFitness(int index, double value) {
+    fitness[index] = value;
+    evaluated[index] = true;
+  }
+
+  /** Return whether the fitness of a slot matches its genes. */
+  boolean isEvaluated(int index) {
+    return evaluated[index];
+  }
+
+  /** Mark the fitness of a slot as stale. */
+  void invalidate(int index) {
+    evaluated[index] = false;
+  }
+
+  /** Restore the evaluation flag of a slot, for example when copying another individual. */
+  void setEvaluated(int index, boolean value) {
+    evaluated[index] = value;
+  }
+
+  /**
+   * Return the mutation rate of one individual.
+   *
+   * @param index individual index
+   * @return mutation rate
+   */
+  public double getMutationRate(int index) {
+    return mutationRates[index];
+  }
+
+  /**
+   * Set the mutation rate of one individual.
+   *
+   * @param index individual index
+   * @param rate new mutation rate
+   */
+  public void setMutationRate(int index, double rate) {
+    mutationRates[index] = rate;
+  }
+
+  /** Return the backing gene words of all slots, for bulk I/O. */
+  long[] geneWords() {
+    return genes;
+  }
+
+  /** Return the backing fitness array, for bulk I/O. */
+  double[] fitnessValues() {
+    return fitness;
+  }
+
+  /** Return the backing mutation-rate array, for bulk I/O. */
+  double[] mutationRateValues() {
+    return mutationRates;
+  }
+
+  /** Return the backing evaluation flags, for bulk I/O. */
+  boolean[] evaluatedFlags() {
+    return evaluated;
+  }
+
+  /** Return the mean fitness, or NaN for an empty store. */
+  public double meanFitness() {
+    double sum = 0;
+    for (int i = 0; i < size; i++) sum += fitness[i];
+    return sum / size;
+  }
+
+  /** Return the index of the fittest individual, the first one on ties, or -1 if empty. */
+  public int bestIndex() {
+    int best = (size == 0) ? -1 : 0;
+    for (int i = 1; i < size; i++) if (fitness[i] > fitness[best]) best = i;
+    return best;
+  }
+
+  /** Return the mean mutation rate, or NaN for an empty store. */
+  public double meanMutationRate() {
+    double sum = 0;
+    for (int i = 0; i < size; i++) sum += mutationRates[i];
+    return sum / size;
+  }
+
+  /**
+   * Return the indices of the {@code count} fittest individuals, best first.
+   *
+   * @param count number of indices, at most {@link #size}
+   * @return slot indices
+   */
+  public int[] bestIndices(int count) {
+    return extremeIndices(count, 1);
+  }
+
+  /**
+   * Return the indices of the {@code count} least fit individuals, worst first.
+   *
+   * @param count number of indices, at most {@link #size}
+   * @return slot indices
+   */
+  public int[] worstIndices(int count) {
+    return extremeIndices(count, -1);
+  }
+
+  /**
+   * Keep the {@code count} most extreme slots in a small sorted buffer while scanning the fitness
+   * array once; cheap for the handful of migrants or elites this is used for.
+   */
+  private int[] extremeIndices(int count, int sign) {
+    if (count < 0 || count > size) {
+      throw new IllegalArgumentException("count " + count + " outside [0, " + size + "]");
+    }
+    int[] top = new int[count];
+    int filled = 0;
+    for (int i = 0; i < size; i++) {
+      double f = sign * fitness[i];
+      if (filled == count && (count == 0 || f <= sign * fitness[top[count - 1]])) continue;
+      int j = (filled < count) ? filled++ : count - 1;
+      while (j > 0 && sign * fitness[top[j - 1]] < f) {
+        top[j] = top[j - 1];
+        j--;
+      }
+      top[j] = i;
+    }
+    return top;
+  }
+
+  /**
+   * Run a tournament among {@code k} uniformly drawn individuals using only the fitness array.
+   *
+   * @param r random stream
+   * @param k tournament size, at least 1
+   * @return index of the winner
+   */
+  int tournament(RandomGenerator r, int k) {
+    int best = r.nextInt(size);
+    for (int i = 1; i < k; i++) {
+      int competitor = r.nextInt(size);
+      if (fitness[competitor] > fitness[best]) best = competitor;
+    }
+    return best;
+  }
+}
@@ -0,0 +1,174 @@
+package ga;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Rank-based selection with linear or exponential selection pressure. The probability of a draw
+ * depends only on the position of an individual in the fitness ranking, not on fitness magnitudes.
+ *
+ * <p>The ranks of all draws of a generation are sampled first from an {@link AliasTable} over the
+ * rank weights, which only changes with the population size. Only the positions that were actually
+ * drawn are then resolved by a multi-quickselect that recurses solely into partitions containing a
+ * requested position, so the ranking is never fully sorted; under strong exponential pressure just
+ * the best few positions are ever ordered.
+ */
+public final class RankSelection implements SelectionStrategy {
+  /** Partitions at most this long are finished by insertion sort. */
+  private static final int INSERTION_THRESHOLD = 16;
+
+  private final boolean exponential;
+  private final double pressure;
+  private final AliasTable ranks = new AliasTable();
+  private int rankTableSize = -1;
+  private PopulationStore population;
+  private int[] order = new int[0];
+  private int[] plan = new int[0];
+  private int[] wanted = new int[0];
+  private int equalEnd;
+
+  private RankSelection(boolean exponential, double pressure) {
+    this.exponential = exponential;
+    this.pressure = pressure;
+  }
+
+  /**
+   * Create linear ranking in which the best individual is expected to be drawn {@code pressure}
+   * times as often as the average and the worst {@code 2 - pressure} times.
+   *
+   * @param pressure selection pressure in {@code [1, 2]}
+   * @return the strategy
+   */
+  public static RankSelection linear(double pressure) {
+    if (pressure < 1 || pressure > 2) {
+      throw new IllegalArgumentException("Linear pressure must be in [1, 2]");
+    }
+    return new RankSelection(false, pressure);
+  }
+
+  /**
+   * Create exponential ranking in which each position is {@code base} times as likely as the one
+   * above it.
+   *
+   * @param base ratio between neighbouring positions, in {@code (0, 1]}
+   * @return the strategy
+   */
+  public static RankSelection exponential(double base) {
+    if (!(base > 0 && base <= 1)) {
+      throw new IllegalArgumentException("Exponential base must be in (0, 1]");
+    }
+    return new RankSelection(true, base);
+  }
+
+  @Override
+  public void prepare(PopulationStore population, int draws, RandomGenerator r) {
+    this.population = population;
+    int n = population.size();
+    if (rankTableSize != n) buildRankTable(n);
+    if (order.length < n) order = new int[n];
+    if (plan.length < draws) {
+      plan = new int[draws];
+      wanted = new int[draws];
+    }
+
+    // Sample a rank per draw, 0 being the best, then resolve only the distinct ranks drawn.
+    for (int d = 0; d < draws; d++) plan[d] = ranks.sample(r);
+    System.arraycopy(plan, 0, wanted, 0, draws);
+    Arrays.sort(wanted, 0, draws);
+    int distinct = 0;
+    for (int d = 0; d < draws; d++) {
+      if (distinct == 0 || wanted[distinct - 1] != wanted[d]) wanted[distinct++] = wanted[d];
+    }
+    for (int i = 0; i < n; i++) order[i] = i;
+    multiSelect(0, n - 1, 0, distinct - 1);
+    for (int d = 0; d < draws; d++) plan[d] = order[plan[d]];
+  }
+
+  @Override
+  public int select(RandomGenerator r, int draw) {
+    return plan[draw];
+  }
+
+  private void buildRankTable(int n) {
+    double[] weights = new double[n];
+    for (int j = 0; j < n; j++) {
+      if (exponential) weights[j] = Math.pow(pressure, j);
+      else weights[j] = (n == 1) ? 1 : pressure - (2 * pressure - 2) * j / (n - 1);
+    }
+    ranks.build(weights, n);
+    rankTableSize = n;
+  }
+
+  /**
+   * Arrange {@code order[lo..hi]} so that every position listed in {@code wanted[wlo..whi]} holds
+   * the individual of that rank in descending fitness order.
+   */
+  private void multiSelect(int lo, int hi, int wlo, int whi) {
+    while (wlo <= whi) {
+      if (hi - lo < INSERTION_THRESHOLD) {
+        insertionSort(lo, hi);
+        return;
+      }
+      int lt = partition(lo, hi);
+      int gt = equalEnd;
+      // Ranks inside the band of pivot ties are resolved already, whichever tie holds them.
+      int split = wlo;
+      while (split <= whi && wanted[split] < lt) split++;
+      int right = split;
+      while (right <= whi && wanted[right] <= gt) right++;
+      // Recurse into the smaller side and loop on the other.
+      if (split - wlo < whi - right + 1) {
+        multiSelect(lo, lt - 1, wlo, split - 1);
+        lo = gt + 1;
+        wlo = right;
+      } else {
+        multiSelect(gt + 1, hi, right, whi);
+        hi = lt - 1;
+        whi = split - 1;
+      }
+    }
+  }
+
+  /**
+   * Three-way partition around a median-of-three pivot: fitter individuals first, then those tying
+   * with the pivot, then the less fit. Returns the start of the band of ties and leaves its end in
+   * {@link #equalEnd}, so a converged population with many equal fitness values is split in one
+   * pass instead of one element per pass.
+   */
+  private int partition(int lo, int hi) {
+    double a = population.getFitness(order[lo]);
+    double b = population.getFitness(order[(lo + hi) >>> 1]);
+    double c = population.getFitness(order[hi]);
+    double pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    int lt = lo;
+    int gt = hi;
+    int i = lo;
+    while (i <= gt) {
+      double f = population.getFitness(order[i]);
+      if (f > pivot) swap(lt++, i++);
+      else if (f < pivot) swap(i, gt--);
+      else i++;
+    }
+    equalEnd = gt;
+    return lt;
+  }
+
+  private void insertionSort(int lo, int hi) {
+    for (int i = lo + 1; i <= hi; i++) {
+      int slot = order[i];
+      double f = population.getFitness(slot);
+      int j = i - 1;
+      while (j >= lo && population.getFitness(order[j]) < f) {
+        order[j + 1] = order[j];
+        j--;
+      }
+      order[j + 1] = slot;
+    }
+  }
+
+  private void swap(int a, int b) {
+    int t = order[a];
+    order[a] = order[b];
+    order[b] = t;
+  }
+}
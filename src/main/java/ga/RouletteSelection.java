@@ -0,0 +1,26 @@
+package ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Fitness-proportionate (roulette wheel) selection backed by an {@link AliasTable}, so each draw
+ * costs two random numbers regardless of population size. Weights are the fitness values shifted so
+ * that the least fit individual has weight zero when any fitness is negative.
+ */
+public final class RouletteSelection implements SelectionStrategy {
+  private final AliasTable table = new AliasTable();
+  private double[] weights = new double[0];
+
+  @Override
+  public void prepare(PopulationStore population, int draws, RandomGenerator r) {
+    int n = population.size();
+    if (weights.length < n) weights = new double[n];
+    FitnessWeights.fill(population, weights);
+    table.build(weights, n);
+  }
+
+  @Override
+  public int select(RandomGenerator r, int draw) {
+    return table.sample(r);
+  }
+}
@@ -0,0 +1,190 @@
+package ga;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Listener that streams one record per generation to a file for offline analysis. The evolution
+ * thread only copies a handful of numbers into a bounded single-producer ring of primitive slots; a
+ * dedicated writer thread drains the ring, encodes records into a direct buffer and hands full
+ * buffers to a {@link FileChannel}. When the writer falls behind and the ring is full, records are
+ * dropped and counted instead of blocking evolution.
+ *
+ * <p>Each record holds the generation, nanoseconds since the logger was created, nanoseconds since
+ * the previous record, best, mean and variance of fitness, diversity and the mean mutation rate.
+ * The {@link Format#CSV} format writes a header line and one line per record. The {@link
+ * Format#BINARY} format writes the magic number {@code "GALG"}, a version and the field count as
+ * little-endian ints, followed by fixed 64-byte little-endian records: three longs and five doubles
+ * in the order above.
+ */
+public final class RunLogger implements EvolutionListener, AutoCloseable {
+
+  /** Encoding of the log file. */
+  public enum Format {
+    /** Human-readable comma-separated values with a header line. */
+    CSV,
+    /** Compact fixed-size little-endian records. */
+    BINARY
+  }
+
+  private static final int MAGIC = 0x47414c47; // "GALG"
+  private static final int VERSION = 1;
+  private static final int FIELDS = 8;
+  private static final String CSV_HEADER =
+      "generation,elapsedNanos,generationNanos,best,mean,variance,diversity,meanMutationRate\n";
+  private static final long IDLE_PARK_NANOS = 1_000_000;
+
+  private final FileChannel channel;
+  private final Format format;
+  private final long[] ring;
+  private final int mask;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong written = new AtomicLong();
+  private final ByteBuffer out = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+  private final StringBuilder line = new StringBuilder(160);
+  private final Thread writer;
+  private final long startNanos = System.nanoTime();
+  private long lastNanos = startNanos;
+  private int buffered;
+  private volatile boolean closing;
+  private volatile IOException failure;
+
+  /**
+   * Create the log file, replacing an existing one, and start the writer thread.
+   *
+   * @param file log file
+   * @param format encoding of the records
+   * @param capacity number of records the ring can buffer, rounded up to a power of two
+   * @throws IOException if the file cannot be created
+   */
+  public RunLogger(Path file, Format format, int capacity) throws IOException {
+    if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive");
+    int slots = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    this.ring = new long[slots * FIELDS];
+    this.mask = slots - 1;
+    this.format = format;
+    this.channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+    if (format == Format.CSV) {
+      out.put(CSV_HEADER.getBytes(StandardCharsets.US_ASCII));
+    } else {
+      out.putInt(MAGIC).putInt(VERSION).putInt(FIELDS);
+    }
+    this.writer = new Thread(this::drain, "run-logger");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /** Return how many records were dropped because the ring was full. */
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  /** Return how many records have been written to the file so far. */
+  public long getWritten() {
+    return written.get();
+  }
+
+  /** Queue a record of the generation that just finished; never blocks. */
+  @Override
+  public void generationEvolved(GeneticAlgorithm ga, OperatorEvents events) {
+    long now = System.nanoTime();
+    long t = tail.get();
+    if (t - head.get() > mask) {
+      dropped.incrementAndGet();
+      lastNanos = now;
+      return;
+    }
+    GenerationStats stats = ga.getGenerationStats();
+    int base = (int) (t & mask) * FIELDS;
+    ring[base] = stats.generation();
+    ring[base + 1] = now - startNanos;
+    ring[base + 2] = now - lastNanos;
+    ring[base + 3] = Double.doubleToRawLongBits(stats.maxFitness());
+    ring[base + 4] = Double.doubleToRawLongBits(stats.meanFitness());
+    ring[base + 5] = Double.doubleToRawLongBits(stats.fitnessVariance());
+    ring[base + 6] = Double.doubleToRawLongBits(ga.getDiversity());
+    ring[base + 7] = Double.doubleToRawLongBits(stats.meanMutationRate());
+    tail.lazySet(t + 1);
+    lastNanos = now;
+  }
+
+  /**
+   * Write every queued record, stop the writer thread and close the file.
+   *
+   * @throws IOException if writing failed at any point
+   */
+  @Override
+  public void close() throws IOException {
+    closing = true;
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    channel.close();
+    if (failure != null) throw failure;
+  }
+
+  /** Writer thread: drain the ring in batches until closed and empty. */
+  private void drain() {
+    try {
+      while (true) {
+        long h = head.get();
+        long t = tail.get();
+        if (h == t) {
+          flush();
+          if (closing && tail.get() == h) break;
+          LockSupport.parkNanos(IDLE_PARK_NANOS);
+          continue;
+        }
+        for (; h < t; h++) {
+          encode((int) (h & mask) * FIELDS);
+          // Releasing each slot right away gives the producer room while a batch is written.
+          head.lazySet(h + 1);
+        }
+      }
+      channel.force(false);
+    } catch (IOException e) {
+      failure = e;
+    }
+  }
+
+  private void encode(int base) throws IOException {
+    if (format == Format.BINARY) {
+      if (out.remaining() < 8 * FIELDS) flush();
+      for (int i = 0; i < 3; i++) out.putLong(ring[base + i]);
+      for (int i = 3; i < 8; i++) out.putDouble(Double.longBitsToDouble(ring[base + i]));
+    } else {
+      line.setLength(0);
+      line.append(ring[base]).append(',').append(ring[base + 1]).append(',').append(ring[base + 2]);
+      for (int i = 3; i < 8; i++) line.append(',').append(Double.longBitsToDouble(ring[base + i]));
+      line.append('\n');
+      if (out.remaining() < line.length()) flush();
+      for (int i = 0; i < line.length(); i++) out.put((byte) line.charAt(i));
+    }
+    buffered++;
+  }
+
+  private void flush() throws IOException {
+    out.flip();
+    while (out.hasRemaining()) channel.write(out);
+    out.clear();
+    written.addAndGet(buffered);
+    buffered = 0;
+  }
+}
@@ -0,0 +1,231 @@
+package ga;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+
+/**
+ * Listener that records every generation of a run, including its crossover and mutation events,
+ * into a compressed append-only file that {@link RunReplay} can seek in and play back without the
+ * engine.
+ *
+ * <p>The file starts with the magic number {@code "GARC"} and a version, little-endian like
+ * everything else, followed by frames. A frame is its byte length, a type byte, the generation, the
+ * uncompressed payload length and the deflated payload. The payload holds the population size and
+ * chromosome length, an events flag, then per child its two parent slots, crossover point and
+ * mutated loci if events are present, and finally one row of packed gene words per child. A
+ * keyframe stores the rows as they are; a delta frame stores each row XORed with the row of the
+ * child's first parent in the previous frame, which is mostly zero and compresses to very little.
+ * Because the delta is taken against the recorder's own copy of the previous rows, reconstruction
+ * is exact even if the population was changed between generations, for example by immigration.
+ *
+ * <p>Every {@code keyframeInterval} frames, and after restarts or size changes, a keyframe is
+ * written and its generation and offset are appended to a sidecar {@code .idx} file, the sparse
+ * index a replay binary-searches to seek.
+ */
+public final class RunRecorder implements EvolutionListener, AutoCloseable {
+  static final int MAGIC = 0x47415243; // "GARC"
+  static final int VERSION = 1;
+  static final int FILE_HEADER_BYTES = 8;
+
+  /** Frame length, type, generation and uncompressed length. */
+  static final int FRAME_HEADER_BYTES = 13;
+
+  static final byte KEYFRAME = 1;
+  static final byte DELTA = 2;
+
+  private final FileChannel channel;
+  private final FileChannel index;
+  private final int keyframeInterval;
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final ByteBuffer frameHeader =
+      ByteBuffer.allocate(FRAME_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  private final ByteBuffer indexEntry = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+  private ByteBuffer payload = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+  private byte[] compressed = new byte[1 << 16];
+  private long[] previous = new long[0];
+  private int previousSize = -1;
+  private int previousLength = -1;
+  private int sinceKeyframe;
+  private long position = FILE_HEADER_BYTES;
+
+  /**
+   * Create the recording and its index, replacing existing files.
+   *
+   * @param file recording file; the index is written next to it with an {@code .idx} suffix
+   * @param keyframeInterval frames between keyframes, at least 1; smaller values seek faster and
+   *     take more space
+   * @throws IOException if the files cannot be created
+   */
+  public RunRecorder(Path file, int keyframeInterval) throws IOException {
+    if (keyframeInterval < 1) throw new IllegalArgumentException("Interval must be positive");
+    this.keyframeInterval = keyframeInterval;
+    this.channel = open(file);
+    this.index = open(indexFile(file));
+    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.putInt(MAGIC).putInt(VERSION).flip();
+    while (header.hasRemaining()) channel.write(header);
+  }
+
+  /** Return the sidecar index file of a recording. */
+  static Path indexFile(Path file) {
+    return file.resolveSibling(file.getFileName() + ".idx");
+  }
+
+  private static FileChannel open(Path file) throws IOException {
+    return FileChannel.open(
+        file,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  /**
+   * Write a keyframe of the engine's current population without events, for example right after
+   * attaching the recorder so that the initial population is part of the recording.
+   *
+   * @param ga engine to capture
+   * @throws IOException if the frame cannot be written
+   */
+  public void capture(GeneticAlgorithm ga) throws IOException {
+    write(ga.currentStore(), ga.getGeneration(), null);
+  }
+
+  @Override
+  public boolean wantsOperatorEvents() {
+    return true;
+  }
+
+  /**
+   * Append a frame for the generation that just finished.
+   *
+   * @throws UncheckedIOException if the frame cannot be written
+   */
+  @Override
+  public void generationEvolved(GeneticAlgorithm ga, OperatorEvents events) {
+    try {
+      write(ga.currentStore(), ga.getGeneration(), events);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Append a keyframe of the reinitialized population.
+   *
+   * @throws UncheckedIOException if the frame cannot be written
+   */
+  @Override
+  public void populationReset(GeneticAlgorithm ga) {
+    try {
+      capture(ga);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void write(PopulationStore store, int generation, OperatorEvents events)
+      throws IOException {
+    int n = store.size();
+    int length = store.getChromosomeLength();
+    int w = BitChromosome.wordsFor(length);
+    long[] genes = store.geneWords();
+    boolean key =
+        events == null
+            || n != previousSize
+            || length != previousLength
+            || sinceKeyframe >= keyframeInterval;
+
+    reservePayload(n, w, events);
+    payload.putInt(n).putInt(length).put((byte) (events != null ? 1 : 0));
+    if (events != null) {
+      for (int i = 0; i < n; i++) {
+        payload.putInt(events.getFirstParent(i)).putInt(events.getSecondParent(i));
+        payload.putInt(events.getCrossoverPoint(i)).putInt(events.getMutationCount(i));
+        for (int k = 0; k < events.getMutationCount(i); k++)
+          payload.putInt(events.getMutation(i, k));
+      }
+    }
+    if (key) {
+      for (int j = 0; j < n * w; j++) payload.putLong(genes[j]);
+    } else {
+      for (int i = 0; i < n; i++) {
+        int parent = events.getFirstParent(i) * w;
+        for (int j = 0; j < w; j++) payload.putLong(genes[i * w + j] ^ previous[parent + j]);
+      }
+    }
+
+    if (previous.length != n * w) previous = new long[n * w];
+    System.arraycopy(genes, 0, previous, 0, n * w);
+    previousSize = n;
+    previousLength = length;
+    sinceKeyframe = key ? 1 : sinceKeyframe + 1;
+
+    int compressedLength = deflate();
+    frameHeader.clear();
+    frameHeader.putInt(FRAME_HEADER_BYTES - 4 + compressedLength);
+    frameHeader.put(key ? KEYFRAME : DELTA).putInt(generation).putInt(payload.position());
+    frameHeader.flip();
+    ByteBuffer body = ByteBuffer.wrap(compressed, 0, compressedLength);
+    ByteBuffer[] frame = {frameHeader, body};
+    while (body.hasRemaining()) channel.write(frame);
+
+    if (key) {
+      indexEntry.clear();
+      indexEntry.putInt(generation).putLong(position).flip();
+      while (indexEntry.hasRemaining()) index.write(indexEntry);
+    }
+    position += FRAME_HEADER_BYTES + compressedLength;
+  }
+
+  /** Make room for a frame's uncompressed payload and rewind the buffer. */
+  private void reservePayload(int n, int w, OperatorEvents events) {
+    long bytes = 9 + 8L * n * w;
+    if (events != null) {
+      bytes += 16L * n;
+      for (int i = 0; i < n; i++) bytes += 4L * events.getMutationCount(i);
+    }
+    if (bytes > Integer.MAX_VALUE - 8) throw new IllegalStateException("Frame too large");
+    if (payload.capacity() < bytes) {
+      payload = ByteBuffer.allocate((int) bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    payload.clear();
+  }
+
+  /** Deflate the payload into {@link #compressed}, growing it as needed; return the length. */
+  private int deflate() {
+    deflater.reset();
+    deflater.setInput(payload.array(), 0, payload.position());
+    deflater.finish();
+    int length = 0;
+    while (!deflater.finished()) {
+      if (length == compressed.length) {
+        byte[] grown = new byte[compressed.length * 2];
+        System.arraycopy(compressed, 0, grown, 0, length);
+        compressed = grown;
+      }
+      length += deflater.deflate(compressed, length, compressed.length - length);
+    }
+    return length;
+  }
+
+  /**
+   * Flush and close the recording and its index.
+   *
+   * @throws IOException if closing fails
+   */
+  @Override
+  public void close() throws IOException {
+    deflater.end();
+    try (FileChannel c = channel;
+        FileChannel i = index) {
+      c.force(false);
+      i.force(false);
+    }
+  }
+}
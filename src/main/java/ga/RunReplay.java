@@ -0,0 +1,259 @@
+package ga;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Player for recordings written by {@link RunRecorder}. {@link #seek} binary-searches the sparse
+ * keyframe index for the last keyframe at or before the requested generation and decodes forward
+ * from there, and {@link #next} streams one frame at a time, so any generation of a long run can be
+ * inspected without running the engine. A recording whose writer crashed is read up to its last
+ * complete frame; a missing index is rebuilt by scanning the frame headers.
+ */
+public final class RunReplay implements AutoCloseable {
+  private final FileChannel channel;
+  private final Inflater inflater = new Inflater();
+  private final ByteBuffer frameHeader =
+      ByteBuffer.allocate(RunRecorder.FRAME_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+  private int[] keyGenerations = new int[16];
+  private long[] keyOffsets = new long[16];
+  private int keyCount;
+  private int runStart;
+  private byte[] compressed = new byte[1 << 16];
+  private byte[] raw = new byte[1 << 16];
+  private long[] rows = new long[0];
+  private long[] spare = new long[0];
+  private long nextFrame = -1;
+  private int generation = -1;
+  private int size;
+  private int chromosomeLength;
+  private final OperatorEvents events = new OperatorEvents();
+  private boolean hasEvents;
+
+  /**
+   * Open a recording and load its keyframe index. Nothing is decoded until the first {@link #seek}
+   * or {@link #next}.
+   *
+   * @param file recording written by {@link RunRecorder}
+   * @throws IOException if the file cannot be read or is not a recording
+   */
+  public RunReplay(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    ByteBuffer header = ByteBuffer.allocate(RunRecorder.FILE_HEADER_BYTES);
+    header.order(ByteOrder.LITTLE_ENDIAN);
+    readFully(header, 0);
+    if (header.getInt(0) != RunRecorder.MAGIC) {
+      channel.close();
+      throw new IOException("Not a run recording: " + file);
+    }
+    Path indexFile = RunRecorder.indexFile(file);
+    if (Files.exists(indexFile)) loadIndex(indexFile);
+    else scanIndex();
+  }
+
+  /** Return the generation of the decoded frame, or -1 before the first frame. */
+  public int getGeneration() {
+    return generation;
+  }
+
+  /** Return the population size of the decoded frame. */
+  public int getPopulationSize() {
+    return size;
+  }
+
+  /** Return the chromosome length of the decoded frame. */
+  public int getChromosomeLength() {
+    return chromosomeLength;
+  }
+
+  /** Return the generation of the first keyframe, or -1 for an empty recording. */
+  public int getFirstGeneration() {
+    return (keyCount == 0) ? -1 : keyGenerations[0];
+  }
+
+  /**
+   * Return one gene of the decoded frame.
+   *
+   * @param individual slot index
+   * @param locus gene index
+   * @return gene value
+   */
+  public boolean getGene(int individual, int locus) {
+    int w = BitChromosome.wordsFor(chromosomeLength);
+    return (rows[individual * w + (locus >>> 6)] & (1L << locus)) != 0;
+  }
+
+  /**
+   * Return the chromosome of one individual of the decoded frame.
+   *
+   * @param individual slot index
+   * @return new array of genes
+   */
+  public boolean[] getChromosome(int individual) {
+    boolean[] genes = new boolean[chromosomeLength];
+    for (int i = 0; i < chromosomeLength; i++) genes[i] = getGene(individual, i);
+    return genes;
+  }
+
+  /**
+   * Return the operator events that produced the decoded frame, or null if the frame was captured
+   * without events, such as the initial population. The instance is reused by later frames.
+   */
+  public OperatorEvents getEvents() {
+    return hasEvents ? events : null;
+  }
+
+  /**
+   * Decode the last frame at or before a generation. Generation numbers start over when the engine
+   * restarts, so seeking covers the most recent run in the recording; earlier runs can still be
+   * played with {@link #next} from the start.
+   *
+   * @param target generation to show
+   * @return false if the recording has no keyframe at or before the target
+   * @throws IOException if the recording cannot be read or is corrupt
+   */
+  public boolean seek(int target) throws IOException {
+    int k = Arrays.binarySearch(keyGenerations, runStart, keyCount, target);
+    if (k >= 0) while (k + 1 < keyCount && keyGenerations[k + 1] == target) k++;
+    else k = -k - 2;
+    if (k < runStart) return false;
+    nextFrame = keyOffsets[k];
+    if (!next()) return false;
+    while (true) {
+      if (!readHeader(nextFrame) || frameHeader.getInt(5) > target) return true;
+      next();
+    }
+  }
+
+  /**
+   * Decode the frame after the current one, or the first frame if none was decoded yet.
+   *
+   * @return false at the end of the recording
+   * @throws IOException if the recording cannot be read or is corrupt
+   */
+  public boolean next() throws IOException {
+    if (nextFrame < 0) {
+      if (keyCount == 0) return false;
+      nextFrame = keyOffsets[0];
+    }
+    if (!readHeader(nextFrame)) return false;
+    int frameLength = frameHeader.getInt(0);
+    byte type = frameHeader.get(4);
+    int frameGeneration = frameHeader.getInt(5);
+    int rawLength = frameHeader.getInt(9);
+    int compressedLength = frameLength - (RunRecorder.FRAME_HEADER_BYTES - 4);
+    if (type == RunRecorder.DELTA && generation < 0) {
+      throw new IOException("Delta frame without a preceding keyframe");
+    }
+
+    if (compressed.length < compressedLength) compressed = new byte[compressedLength];
+    if (raw.length < rawLength) raw = new byte[rawLength];
+    readFully(
+        ByteBuffer.wrap(compressed, 0, compressedLength),
+        nextFrame + RunRecorder.FRAME_HEADER_BYTES);
+    inflater.reset();
+    inflater.setInput(compressed, 0, compressedLength);
+    try {
+      int n = 0;
+      while (n < rawLength && !inflater.finished()) n += inflater.inflate(raw, n, rawLength - n);
+      if (n != rawLength) throw new IOException("Corrupt frame at generation " + frameGeneration);
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt frame at generation " + frameGeneration, e);
+    }
+    decode(
+        ByteBuffer.wrap(raw, 0, rawLength).order(ByteOrder.LITTLE_ENDIAN), type, frameGeneration);
+    generation = frameGeneration;
+    nextFrame += RunRecorder.FRAME_HEADER_BYTES + compressedLength;
+    return true;
+  }
+
+  private void decode(ByteBuffer in, byte type, int frameGeneration) {
+    int n = in.getInt();
+    int length = in.getInt();
+    hasEvents = in.get() != 0;
+    int w = BitChromosome.wordsFor(length);
+    if (hasEvents) {
+      events.reset(frameGeneration, n, length);
+      for (int i = 0; i < n; i++) {
+        events.recordParents(i, in.getInt(), in.getInt());
+        int point = in.getInt();
+        if (point >= 0) events.recordCrossover(i, point);
+        int mutations = in.getInt();
+        for (int k = 0; k < mutations; k++) events.recordMutation(i, in.getInt());
+      }
+    }
+    if (spare.length != n * w) spare = new long[n * w];
+    if (type == RunRecorder.KEYFRAME) {
+      for (int j = 0; j < n * w; j++) spare[j] = in.getLong();
+    } else {
+      for (int i = 0; i < n; i++) {
+        int parent = events.getFirstParent(i) * w;
+        for (int j = 0; j < w; j++) spare[i * w + j] = in.getLong() ^ rows[parent + j];
+      }
+    }
+    long[] t = rows;
+    rows = spare;
+    spare = t;
+    size = n;
+    chromosomeLength = length;
+  }
+
+  /** Read a frame header into {@link #frameHeader}; false if no complete frame starts there. */
+  private boolean readHeader(long pos) throws IOException {
+    if (pos + RunRecorder.FRAME_HEADER_BYTES > channel.size()) return false;
+    frameHeader.clear();
+    readFully(frameHeader, pos);
+    return pos + 4 + frameHeader.getInt(0) <= channel.size();
+  }
+
+  private void readFully(ByteBuffer buffer, long pos) throws IOException {
+    while (buffer.hasRemaining()) {
+      int n = channel.read(buffer, pos);
+      if (n < 0) throw new IOException("Unexpected end of recording");
+      pos += n;
+    }
+  }
+
+  private void loadIndex(Path indexFile) throws IOException {
+    ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+    data.order(ByteOrder.LITTLE_ENDIAN);
+    while (data.remaining() >= 12) addKeyframe(data.getInt(), data.getLong());
+  }
+
+  private void scanIndex() throws IOException {
+    for (long pos = RunRecorder.FILE_HEADER_BYTES; readHeader(pos); ) {
+      if (frameHeader.get(4) == RunRecorder.KEYFRAME) addKeyframe(frameHeader.getInt(5), pos);
+      pos += 4 + frameHeader.getInt(0);
+    }
+  }
+
+  private void addKeyframe(int keyGeneration, long offset) {
+    // A generation that does not increase marks a restart; seeking covers the latest run.
+    if (keyCount > 0 && keyGeneration <= keyGenerations[keyCount - 1]) runStart = keyCount;
+    if (keyCount == keyGenerations.length) {
+      keyGenerations = Arrays.copyOf(keyGenerations, 2 * keyCount);
+      keyOffsets = Arrays.copyOf(keyOffsets, 2 * keyCount);
+    }
+    keyGenerations[keyCount] = keyGeneration;
+    keyOffsets[keyCount++] = offset;
+  }
+
+  /**
+   * Close the recording.
+   *
+   * @throws IOException if closing fails
+   */
+  @Override
+  public void close() throws IOException {
+    inflater.end();
+    channel.close();
+  }
+}
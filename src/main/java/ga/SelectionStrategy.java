@@ -0,0 +1,36 @@
+package ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Parent selection scheme of a {@link GeneticAlgorithm}. Once per generation the engine calls
+ * {@link #prepare} on the breeding thread, where a strategy builds whatever tables it needs from
+ * the population's fitness array; afterwards {@link #select} is called once per parent, possibly
+ * from several worker threads at once, and must only read those tables.
+ *
+ * <p>Every draw has an index in {@code [0, draws)}; the parents of children {@code i} and {@code i
+ * + 1} are draws {@code i} and {@code i + 1}. Strategies that plan all draws of a generation up
+ * front, such as stochastic universal sampling, use the index to look up their plan, so results
+ * stay independent of how the breeding work is split across threads. A strategy keeps per-engine
+ * state and must not be shared between engines.
+ */
+public interface SelectionStrategy {
+
+  /**
+   * Build the selection tables of a generation.
+   *
+   * @param population population parents are drawn from
+   * @param draws number of draws that will follow
+   * @param r random stream reserved for this generation's preparation
+   */
+  void prepare(PopulationStore population, int draws, RandomGenerator r);
+
+  /**
+   * Draw one parent.
+   *
+   * @param r random stream of the calling breeding chunk
+   * @param draw index of this draw within the generation
+   * @return slot index of the selected parent
+   */
+  int select(RandomGenerator r, int draw);
+}
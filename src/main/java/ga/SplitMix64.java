@@ -0,0 +1,67 @@
+package ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Small reseedable SplitMix64 generator. The engine derives one independent stream per (run,
+ * generation, chunk) from the master seed, so a seeded run produces the same result no matter how
+ * many threads execute the chunks. Instances are not thread-safe; each worker uses its own.
+ */
+final class SplitMix64 implements RandomGenerator {
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  private long state;
+
+  /**
+   * Create a generator starting from the given seed.
+   *
+   * @param seed initial state
+   */
+  SplitMix64(long seed) {
+    this.state = seed;
+  }
+
+  /**
+   * Restart the stream from a new seed without allocating.
+   *
+   * @param seed new state
+   * @return this generator
+   */
+  SplitMix64 reseed(long seed) {
+    this.state = seed;
+    return this;
+  }
+
+  @Override
+  public long nextLong() {
+    return mix(state += GOLDEN_GAMMA);
+  }
+
+  /**
+   * SplitMix64 finalizer: a bijective avalanche of all 64 bits.
+   *
+   * @param z value to mix
+   * @return mixed value
+   */
+  static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Derive the seed of the sub-stream at the given coordinates.
+   *
+   * @param seed master seed
+   * @param run restart counter
+   * @param generation generation being produced
+   * @param stream stream within the generation, for example the chunk index
+   * @return well-mixed seed for that stream
+   */
+  static long streamSeed(long seed, long run, long generation, long stream) {
+    long z = mix(seed);
+    z = mix(z ^ mix(run + GOLDEN_GAMMA));
+    z = mix(z ^ mix(generation + 2 * GOLDEN_GAMMA));
+    return mix(z ^ mix(stream + 3 * GOLDEN_GAMMA));
+  }
+}
@@ -0,0 +1,348 @@
+package ga;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Steady-state, asynchronous evolution of a {@link GeneticAlgorithm}'s population. Instead of a
+ * generational barrier three stages run concurrently:
+ *
+ * <ol>
+ *   <li>a producer thread selects parents by tournament and breeds pairs of children with the
+ *       engine's crossover and self-adaptive mutation;
+ *   <li>a pool of evaluator threads scores the children with the engine's {@link FitnessFunction};
+ *   <li>a single replacer thread inserts each scored child into the population as soon as it
+ *       arrives, overwriting the least fit individual or the loser of a small tournament.
+ * </ol>
+ *
+ * <p>Only the replacer writes the population. Slots are guarded by striped {@link StampedLock}s:
+ * the producer reads parents with optimistic stamps and only falls back to a read lock if a slot
+ * was rewritten during the copy, so reading never waits on evaluation. Scored children travel to
+ * the replacer through a lock-free {@link MigrationQueue}. A semaphore bounds the number of
+ * children in flight, so a slow evaluator only throttles the producer.
+ *
+ * <p>Runs are not reproducible from the seed because the replacement order depends on timing. The
+ * engine must not be used directly while this pipeline runs.
+ */
+public final class SteadyStateEvolution {
+
+  /** How a finished child picks the individual it replaces. */
+  public enum Replacement {
+    /** Replace the least fit individual of the population, found with an indexed heap. */
+    WORST,
+    /** Replace the least fit of {@code k} uniformly drawn individuals. */
+    TOURNAMENT
+  }
+
+  /** Number of lock stripes; a power of two. */
+  private static final int STRIPES = 64;
+
+  private static final int TOURNAMENT_SIZE = 3;
+
+  private final GeneticAlgorithm ga;
+  private final int evaluators;
+  private final int maxInFlight;
+  private final StampedLock[] locks = new StampedLock[STRIPES];
+  private final LongAdder produced = new LongAdder();
+  private final LongAdder replaced = new LongAdder();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private Replacement replacement = Replacement.WORST;
+  private Semaphore inFlight;
+  private BlockingQueue<Individual> work;
+  private MigrationQueue finished;
+  private Thread producer;
+  private Thread replacer;
+  private Thread[] workers;
+  private volatile boolean producing;
+  private volatile long replaceLimit;
+  private volatile double bestFitness;
+  private volatile double averageFitness;
+
+  /**
+   * Create a pipeline working on the engine's current population.
+   *
+   * @param ga engine whose population, operators and fitness function are used
+   * @param evaluators number of evaluator threads, at least 1
+   */
+  public SteadyStateEvolution(GeneticAlgorithm ga, int evaluators) {
+    if (evaluators < 1) throw new IllegalArgumentException("evaluators must be positive");
+    this.ga = ga;
+    this.evaluators = evaluators;
+    this.maxInFlight = 4 * evaluators;
+    for (int i = 0; i < STRIPES; i++) locks[i] = new StampedLock();
+  }
+
+  /** Return the replacement policy. */
+  public Replacement getReplacement() {
+    return replacement;
+  }
+
+  /**
+   * Choose how finished children enter the population; takes effect on the next start.
+   *
+   * @param replacement replacement policy
+   */
+  public void setReplacement(Replacement replacement) {
+    checkStopped();
+    this.replacement = replacement;
+  }
+
+  /**
+   * Insert at least the given number of children, then stop and wait for the pipeline to drain.
+   * Children still in flight when the count is reached are inserted as well.
+   *
+   * @param children number of children to insert
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void evolve(long children) throws InterruptedException {
+    launch(replaced.sum() + children);
+    awaitStop();
+  }
+
+  /** Start producing, evaluating and inserting children until {@link #stop} is called. */
+  public void start() {
+    launch(Long.MAX_VALUE);
+  }
+
+  /**
+   * Stop producing, let the children in flight be evaluated and inserted, and wait for all stages.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public void stop() throws InterruptedException {
+    producing = false;
+    awaitStop();
+  }
+
+  /** Return whether the pipeline is running. */
+  public boolean isRunning() {
+    return replacer != null;
+  }
+
+  /** Return the number of children bred so far. */
+  public long getChildrenProduced() {
+    return produced.sum();
+  }
+
+  /** Return the number of children inserted into the population so far. */
+  public long getChildrenReplaced() {
+    return replaced.sum();
+  }
+
+  /** Return the best fitness inserted or present since the last start. Readable while running. */
+  public double getBestFitness() {
+    return bestFitness;
+  }
+
+  /** Return the mean fitness of the population as of the last insertion. Readable while running. */
+  public double getAverageFitness() {
+    return averageFitness;
+  }
+
+  private void launch(long targetReplaced) {
+    checkStopped();
+    failure.set(null);
+    PopulationStore store = ga.currentStore();
+    replaceLimit = targetReplaced;
+    inFlight = new Semaphore(maxInFlight);
+    work = new ArrayBlockingQueue<>(maxInFlight);
+    finished = new MigrationQueue(maxInFlight);
+    bestFitness = ga.getBestFitnessValue();
+    averageFitness = store.meanFitness();
+    producing = true;
+
+    replacer = new Thread(this::replace, "steady-state-replacer");
+    producer = new Thread(this::produce, "steady-state-producer");
+    workers = new Thread[evaluators];
+    for (int i = 0; i < evaluators; i++) {
+      workers[i] = new Thread(this::evaluate, "steady-state-evaluator-" + i);
+      workers[i].setDaemon(true);
+      workers[i].start();
+    }
+    replacer.setDaemon(true);
+    producer.setDaemon(true);
+    replacer.start();
+    producer.start();
+  }
+
+  private void awaitStop() throws InterruptedException {
+    if (replacer == null) return;
+    replacer.join();
+    // Wakes a producer that waits for permits a failed replacer will never return.
+    producer.interrupt();
+    producer.join();
+    for (Thread w : workers) w.interrupt();
+    for (Thread w : workers) w.join();
+    producer = null;
+    replacer = null;
+    workers = null;
+    ga.refreshStats();
+    Throwable t = failure.get();
+    if (t != null) throw new IllegalStateException("Steady-state evolution failed", t);
+  }
+
+  private void checkStopped() {
+    if (replacer != null) throw new IllegalStateException("Pipeline is running");
+  }
+
+  private void fail(Throwable t) {
+    failure.compareAndSet(null, t);
+    producing = false;
+  }
+
+  /** Producer stage: breed pairs from consistent copies of tournament winners. */
+  private void produce() {
+    PopulationStore store = ga.currentStore();
+    int length = store.getChromosomeLength();
+    Individual parent1 = new Individual(length);
+    Individual parent2 = new Individual(length);
+    SplitMix64 r = new SplitMix64(ThreadLocalRandom.current().nextLong());
+    try {
+      while (producing) {
+        inFlight.acquire(2);
+        if (!producing) {
+          inFlight.release(2);
+          break;
+        }
+        readSlot(select(store, r), parent1);
+        readSlot(select(store, r), parent2);
+        Individual child1 = new Individual(length);
+        Individual child2 = new Individual(length);
+        ga.breedPair(parent1, parent2, child1, child2, r, null, null, 0, true, null);
+        work.put(child1);
+        work.put(child2);
+        produced.add(2);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Throwable t) {
+      fail(t);
+    }
+  }
+
+  /** Pick a parent slot by tournament on optimistically read fitness values. */
+  private int select(PopulationStore store, SplitMix64 r) {
+    int best = r.nextInt(store.size());
+    double bestFit = readFitness(store, best);
+    for (int i = 1; i < TOURNAMENT_SIZE; i++) {
+      int competitor = r.nextInt(store.size());
+      double f = readFitness(store, competitor);
+      if (f > bestFit) {
+        best = competitor;
+        bestFit = f;
+      }
+    }
+    return best;
+  }
+
+  private double readFitness(PopulationStore store, int slot) {
+    StampedLock lock = lockFor(slot);
+    long stamp = lock.tryOptimisticRead();
+    double f = store.getFitness(slot);
+    if (lock.validate(stamp)) return f;
+    stamp = lock.readLock();
+    try {
+      return store.getFitness(slot);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Copy a slot into a private individual, retrying under a read lock if it was being replaced. */
+  private void readSlot(int slot, Individual into) {
+    Individual source = ga.currentStore().get(slot);
+    StampedLock lock = lockFor(slot);
+    long stamp = lock.tryOptimisticRead();
+    into.copyFrom(source);
+    if (lock.validate(stamp)) return;
+    stamp = lock.readLock();
+    try {
+      into.copyFrom(source);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Evaluator stage: score children and hand them to the replacer. */
+  private void evaluate() {
+    FitnessFunction f = ga.getFitnessFunction();
+    try {
+      while (true) {
+        Individual child = work.take();
+        try {
+          child.setFitness(f.evaluate(child));
+        } catch (Throwable t) {
+          fail(t);
+          inFlight.release();
+          continue;
+        }
+        finished.offer(child);
+        LockSupport.unpark(replacer);
+      }
+    } catch (InterruptedException e) {
+      // Stopped by awaitStop once the replacer has drained everything.
+    }
+  }
+
+  /** Replacer stage: the only writer of the population. */
+  private void replace() {
+    PopulationStore store = ga.currentStore();
+    AlleleCounts counts = ga.liveAlleleCounts();
+    FitnessHeap heap = (replacement == Replacement.WORST) ? new FitnessHeap(store) : null;
+    SplitMix64 r = new SplitMix64(ThreadLocalRandom.current().nextLong());
+    double sum = store.meanFitness() * store.size();
+    double best = bestFitness;
+    try {
+      while (true) {
+        Individual child = finished.poll();
+        if (child == null) {
+          boolean drained = inFlight.availablePermits() == maxInFlight;
+          if (!producing && drained) return;
+          LockSupport.parkNanos(100_000);
+          continue;
+        }
+        int slot = (heap != null) ? heap.worst() : loser(store, r);
+        Individual victim = store.get(slot);
+        StampedLock lock = lockFor(slot);
+        long stamp = lock.writeLock();
+        try {
+          sum += child.getFitnessValue() - victim.getFitnessValue();
+          counts.remove(victim);
+          victim.copyFrom(child);
+          counts.add(victim);
+        } finally {
+          lock.unlockWrite(stamp);
+        }
+        if (heap != null) heap.update(slot);
+        best = Math.max(best, child.getFitnessValue());
+        bestFitness = best;
+        averageFitness = sum / store.size();
+        replaced.increment();
+        if (replaced.sum() >= replaceLimit) producing = false;
+        inFlight.release();
+      }
+    } catch (Throwable t) {
+      fail(t);
+    }
+  }
+
+  /** Return the least fit of a few uniformly drawn slots; the replacer owns the fitness array. */
+  private static int loser(PopulationStore store, SplitMix64 r) {
+    int worst = r.nextInt(store.size());
+    for (int i = 1; i < TOURNAMENT_SIZE; i++) {
+      int competitor = r.nextInt(store.size());
+      if (store.getFitness(competitor) < store.getFitness(worst)) worst = competitor;
+    }
+    return worst;
+  }
+
+  private StampedLock lockFor(int slot) {
+    return locks[slot & (STRIPES - 1)];
+  }
+}
@@ -0,0 +1,48 @@
+package ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Stochastic universal sampling: all parents of a generation are chosen at once by walking a
+ * prefix-sum array of the weights with equally spaced pointers from a single random offset, which
+ * gives every individual within one of its expected number of copies. The plan is then shuffled so
+ * that consecutive draws pair unrelated parents, and {@link #select} just reads the planned draw.
+ * Weights are fitness values, shifted up when any is negative.
+ */
+public final class StochasticUniversalSampling implements SelectionStrategy {
+  private double[] prefix = new double[0];
+  private int[] plan = new int[0];
+
+  @Override
+  public void prepare(PopulationStore population, int draws, RandomGenerator r) {
+    int n = population.size();
+    if (prefix.length < n) prefix = new double[n];
+    if (plan.length < draws) plan = new int[draws];
+
+    double total = FitnessWeights.fill(population, prefix);
+    for (int i = 1; i < n; i++) prefix[i] += prefix[i - 1];
+
+    if (total <= 0) {
+      for (int d = 0; d < draws; d++) plan[d] = r.nextInt(n);
+      return;
+    }
+    double step = total / draws;
+    double pointer = r.nextDouble() * step;
+    int i = 0;
+    for (int d = 0; d < draws; d++, pointer += step) {
+      while (i < n - 1 && prefix[i] <= pointer) i++;
+      plan[d] = i;
+    }
+    for (int d = draws - 1; d > 0; d--) {
+      int j = r.nextInt(d + 1);
+      int t = plan[d];
+      plan[d] = plan[j];
+      plan[j] = t;
+    }
+  }
+
+  @Override
+  public int select(RandomGenerator r, int draw) {
+    return plan[draw];
+  }
+}
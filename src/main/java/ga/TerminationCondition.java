@@ -0,0 +1,158 @@
+package ga;
+
+import java.time.Duration;
+
+/**
+ * Stopping rule for {@link GeneticAlgorithm#runUntil}. A condition is checked before the first
+ * generation and after every generation, so it should be cheap. Stateful conditions, such as those
+ * measuring progress since the run started, take their baseline in {@link #start} and may be reused
+ * for several runs but not by two runs at once.
+ */
+@FunctionalInterface
+public interface TerminationCondition {
+
+  /**
+   * Decide whether the run should stop.
+   *
+   * @param ga engine being run
+   * @return true to stop
+   */
+  boolean isMet(GeneticAlgorithm ga);
+
+  /**
+   * Take the baseline of a new run. Called once by {@link GeneticAlgorithm#runUntil} before the
+   * first check.
+   *
+   * @param ga engine about to be run
+   */
+  default void start(GeneticAlgorithm ga) {}
+
+  /**
+   * Combine with another condition; the result stops as soon as either is met.
+   *
+   * @param other second condition
+   * @return combined condition
+   */
+  default TerminationCondition or(TerminationCondition other) {
+    TerminationCondition self = this;
+    return new TerminationCondition() {
+      @Override
+      public void start(GeneticAlgorithm ga) {
+        self.start(ga);
+        other.start(ga);
+      }
+
+      @Override
+      public boolean isMet(GeneticAlgorithm ga) {
+        return self.isMet(ga) || other.isMet(ga);
+      }
+    };
+  }
+
+  /**
+   * Stop after a number of generations counted from the start of the run.
+   *
+   * @param generations generations to evolve
+   * @return condition
+   */
+  static TerminationCondition generations(int generations) {
+    return new TerminationCondition() {
+      private int end;
+
+      @Override
+      public void start(GeneticAlgorithm ga) {
+        end = ga.getGeneration() + generations;
+      }
+
+      @Override
+      public boolean isMet(GeneticAlgorithm ga) {
+        return ga.getGeneration() >= end;
+      }
+    };
+  }
+
+  /**
+   * Stop once the best fitness of the population reaches a target.
+   *
+   * @param target fitness to reach
+   * @return condition
+   */
+  static TerminationCondition targetFitness(double target) {
+    return ga -> ga.getBestFitnessValue() >= target;
+  }
+
+  /**
+   * Stop once the best fitness has not improved for a number of consecutive generations.
+   *
+   * @param generations generations without improvement to tolerate
+   * @return condition
+   */
+  static TerminationCondition stagnation(int generations) {
+    return new TerminationCondition() {
+      private double best;
+      private int lastImprovement;
+
+      @Override
+      public void start(GeneticAlgorithm ga) {
+        best = ga.getBestFitnessValue();
+        lastImprovement = ga.getGeneration();
+      }
+
+      @Override
+      public boolean isMet(GeneticAlgorithm ga) {
+        if (ga.getBestFitnessValue() > best) {
+          best = ga.getBestFitnessValue();
+          lastImprovement = ga.getGeneration();
+        }
+        return ga.getGeneration() - lastImprovement >= generations;
+      }
+    };
+  }
+
+  /**
+   * Stop once the run has taken the given wall-clock time. The generation in progress when the
+   * budget runs out is finished first.
+   *
+   * @param budget time the run may take
+   * @return condition
+   */
+  static TerminationCondition wallClock(Duration budget) {
+    long budgetNanos = budget.toNanos();
+    return new TerminationCondition() {
+      private long startNanos;
+
+      @Override
+      public void start(GeneticAlgorithm ga) {
+        startNanos = System.nanoTime();
+      }
+
+      @Override
+      public boolean isMet(GeneticAlgorithm ga) {
+        return System.nanoTime() - startNanos >= budgetNanos;
+      }
+    };
+  }
+
+  /**
+   * Stop once the run has scored the given number of individuals, as counted by {@link
+   * GeneticAlgorithm#getEvaluations}. The last generation may overshoot the budget.
+   *
+   * @param evaluations number of evaluations the run may spend
+   * @return condition
+   */
+  static TerminationCondition evaluationBudget(long evaluations) {
+    return new TerminationCondition() {
+      private long end;
+
+      @Override
+      public void start(GeneticAlgorithm ga) {
+        end = ga.getEvaluations() + evaluations;
+      }
+
+      @Override
+      public boolean isMet(GeneticAlgorithm ga) {
+        return ga.getEvaluations() >= end;
+      }
+    };
+  }
+}
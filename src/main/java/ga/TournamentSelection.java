@@ -0,0 +1,37 @@
+package ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tournament selection: each draw picks {@code k} individuals uniformly at random and keeps the
+ * fittest. Needs no tables, so {@link #prepare} only remembers the population.
+ */
+public final class TournamentSelection implements SelectionStrategy {
+  private final int size;
+  private PopulationStore population;
+
+  /**
+   * Create a tournament of the given size.
+   *
+   * @param size number of competitors per draw, at least 1
+   */
+  public TournamentSelection(int size) {
+    if (size < 1) throw new IllegalArgumentException("Tournament size must be positive");
+    this.size = size;
+  }
+
+  /** Return the number of competitors per draw. */
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public void prepare(PopulationStore population, int draws, RandomGenerator r) {
+    this.population = population;
+  }
+
+  @Override
+  public int select(RandomGenerator r, int draw) {
+    return population.tournament(r, size);
+  }
+}
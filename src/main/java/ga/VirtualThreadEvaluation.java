@@ -0,0 +1,163 @@
+package ga;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluation mode for fitness functions that spend most of their time blocked, for example on a
+ * simulator process or on file I/O. Each child is evaluated by {@link FitnessFunction#evaluate} on
+ * its own virtual thread, so thousands of evaluations can be in flight on a handful of carrier
+ * threads. A semaphore caps how many run at once, an evaluation that exceeds the timeout is
+ * interrupted and scored with the penalty fitness, and {@link #cancel} abandons the generation
+ * being evaluated.
+ *
+ * <p>Install with {@link GeneticAlgorithm#setVirtualThreadEvaluation}. Batched {@link
+ * FitnessFunction#evaluateAll} overrides are bypassed in this mode.
+ */
+public final class VirtualThreadEvaluation implements AutoCloseable {
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Semaphore permits;
+  private final int maxConcurrent;
+  private final long timeoutNanos;
+  private final double penaltyFitness;
+  private final LongAdder evaluations = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private volatile Future<?>[] current;
+  private volatile boolean cancelled;
+
+  /**
+   * Create an evaluation mode.
+   *
+   * @param maxConcurrent maximum number of evaluations running at once, at least 1
+   * @param timeout time one evaluation may take once it runs, or null for no limit
+   * @param penaltyFitness fitness given to an evaluation that timed out
+   */
+  public VirtualThreadEvaluation(int maxConcurrent, Duration timeout, double penaltyFitness) {
+    if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent must be positive");
+    this.maxConcurrent = maxConcurrent;
+    this.permits = new Semaphore(maxConcurrent);
+    this.timeoutNanos = (timeout == null) ? Long.MAX_VALUE : timeout.toNanos();
+    this.penaltyFitness = penaltyFitness;
+  }
+
+  /** Return the maximum number of evaluations running at once. */
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  /** Return the fitness given to evaluations that timed out. */
+  public double getPenaltyFitness() {
+    return penaltyFitness;
+  }
+
+  /** Return the number of evaluations completed or timed out. */
+  public long getEvaluations() {
+    return evaluations.sum();
+  }
+
+  /** Return the number of evaluations that timed out and received the penalty. */
+  public long getTimeouts() {
+    return timeouts.sum();
+  }
+
+  /**
+   * Abandon the batch being evaluated, from any thread. Running evaluations are interrupted and
+   * {@link GeneticAlgorithm#evolveOneGeneration} throws {@link CancellationException} without
+   * changing the population.
+   */
+  public void cancel() {
+    cancelled = true;
+    Future<?>[] tasks = current;
+    if (tasks != null) for (Future<?> t : tasks) t.cancel(true);
+  }
+
+  /**
+   * Evaluate every individual of a batch on virtual threads and wait for all of them. Scores are
+   * collected in a batch-local array and copied into the individuals by the calling thread only
+   * once every evaluation finished, so an abandoned evaluation that ignores its interrupt can never
+   * write into a slot that has since been reused.
+   *
+   * @param f fitness function, safe to call concurrently
+   * @param batch individuals to score
+   * @return per individual, whether it timed out and received the penalty
+   * @throws CancellationException if {@link #cancel} was called or the calling thread was
+   *     interrupted; the interrupt flag is restored in that case
+   */
+  boolean[] evaluateAll(FitnessFunction f, Individual[] batch) {
+    boolean[] penalized = new boolean[batch.length];
+    double[] fitness = new double[batch.length];
+    Future<?>[] tasks = new Future<?>[batch.length];
+    cancelled = false;
+    current = tasks;
+    try {
+      for (int i = 0; i < batch.length; i++) {
+        int index = i;
+        tasks[i] =
+            executor.submit(
+                () -> {
+                  evaluateOne(f, batch[index], fitness, penalized, index);
+                  return null;
+                });
+      }
+      if (cancelled) cancel();
+      for (Future<?> t : tasks) t.get();
+      if (cancelled) throw new CancellationException("Evaluation cancelled");
+      for (int i = 0; i < batch.length; i++) batch[i].setFitness(fitness[i]);
+      return penalized;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new CancellationException("Evaluation interrupted");
+    } catch (CancellationException e) {
+      cancel();
+      throw e;
+    } catch (ExecutionException e) {
+      cancel();
+      throw new IllegalStateException("Fitness evaluation failed", e.getCause());
+    } finally {
+      current = null;
+    }
+  }
+
+  /** Body of one evaluation's virtual thread; it never writes to the individual itself. */
+  private void evaluateOne(
+      FitnessFunction f, Individual ind, double[] fitness, boolean[] penalized, int index)
+      throws InterruptedException, ExecutionException {
+    permits.acquire();
+    Future<Double> run = null;
+    try {
+      if (timeoutNanos == Long.MAX_VALUE) {
+        fitness[index] = f.evaluate(ind);
+      } else {
+        run = executor.submit(() -> f.evaluate(ind));
+        fitness[index] = run.get(timeoutNanos, TimeUnit.NANOSECONDS);
+      }
+    } catch (TimeoutException e) {
+      // An evaluation that ignores the interrupt keeps running but no longer holds a permit.
+      run.cancel(true);
+      fitness[index] = penaltyFitness;
+      penalized[index] = true;
+      timeouts.increment();
+    } catch (InterruptedException e) {
+      if (run != null) run.cancel(true);
+      throw e;
+    } finally {
+      permits.release();
+    }
+    evaluations.increment();
+  }
+
+  /** Interrupt whatever is still running and release the executor. */
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
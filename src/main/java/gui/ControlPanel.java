@@ -1,14 +1,19 @@
 package gui;
 
+import ga.EvolutionListener;
 import ga.GeneticAlgorithm;
+import ga.OperatorEvents;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import java.util.Random;
 import javax.swing.*;
 
-/** Control panel containing buttons and sliders to operate the genetic algorithm. */
-public class ControlPanel extends JPanel {
+/**
+ * Control panel containing buttons and sliders to operate the genetic algorithm. It listens to the
+ * algorithm to keep the mutation slider in sync with the evolving average mutation rate.
+ */
+public class ControlPanel extends JPanel implements EvolutionListener {
   private final JButton startBtn = new JButton("Start");
   private final JButton stepBtn = new JButton("Step");
   private final JButton restartBtn = new JButton("Restart");
@@ -320,4 +325,19 @@ public class ControlPanel extends JPanel {
     mutationSlider.setValue((int) (avgMutationRate * 100));
     mutationLabel.setText("Mutation Rate: " + mutationSlider.getValue() + "%");
   }
+
+  @Override
+  public void generationEvolved(GeneticAlgorithm ga, OperatorEvents events) {
+    updateMutationSlider(ga);
+  }
+
+  @Override
+  public void populationReset(GeneticAlgorithm ga) {
+    updateMutationSlider(ga);
+  }
+
+  @Override
+  public void mutationRateChanged(GeneticAlgorithm ga) {
+    updateMutationSlider(ga);
+  }
 }
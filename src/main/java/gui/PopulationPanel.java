@@ -1,22 +1,31 @@
 package gui;
 
+import ga.EvolutionListener;
+import ga.GeneticAlgorithm;
 import ga.Individual;
+import ga.OperatorEvents;
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import javax.swing.*;
 
-/** Panel responsible for rendering the whole population as a grid of genes. */
-public class PopulationPanel extends JPanel {
+/**
+ * Panel responsible for rendering the whole population as a grid of genes. As an {@link
+ * EvolutionListener} it highlights the crossovers and mutations of each generation.
+ */
+public class PopulationPanel extends JPanel implements EvolutionListener {
   private transient Individual[] population;
   private int fixedCellSize = -1;
   private static final int LEFT_MARGIN = 100;
   private static final int TOP_MARGIN = 50;
   private static final int RIGHT_MARGIN = 30;
   private static final int BOTTOM_MARGIN = 50;
-  private List<Point> mutationPoints = new ArrayList<>();
-  private List<Point> crossoverPoints = new ArrayList<>();
+  private static final Color MUTATION_COLOR = new Color(255, 80, 80);
+  private static final Color CROSSOVER_COLOR = new Color(80, 255, 120);
+  private static final Color EMPTY_GENE_COLOR = new Color(60, 60, 60);
+  private static final BasicStroke CELL_STROKE = new BasicStroke(1);
+  // Per-row, per-gene count of active highlights; rows are allocated lazily on first highlight.
+  private int[][] mutationHits = new int[0][];
+  private int[][] crossoverHits = new int[0][];
 
   /** Create the population panel and configure its appearance. */
   public PopulationPanel() {
@@ -33,7 +42,7 @@ public class PopulationPanel extends JPanel {
     // Defensive copy to avoid storing externally mutable array reference
     this.population = (population == null) ? null : Arrays.copyOf(population, population.length);
     if (fixedCellSize == -1 && population != null && population.length > 0) {
-      int numCols = population[0].getChromosome().length;
+      int numCols = population[0].getLength();
       int maxCell = 18;
       int availWidth = -1;
       java.awt.Container vp = SwingUtilities.getAncestorOfClass(javax.swing.JViewport.class, this);
@@ -41,7 +50,10 @@ public class PopulationPanel extends JPanel {
         availWidth = ((javax.swing.JViewport) vp).getWidth();
       }
 
-      if (availWidth <= 0) {
+      if (availWidth <= 0 && java.awt.GraphicsEnvironment.isHeadless()) {
+        // No screen to size against, for example when rendering offscreen in a benchmark.
+        availWidth = 1200;
+      } else if (availWidth <= 0) {
         availWidth =
             Math.max(600, java.awt.Toolkit.getDefaultToolkit().getScreenSize().width - 200);
       }
@@ -64,28 +76,62 @@ public class PopulationPanel extends JPanel {
     repaint();
   }
 
-  /**
-   * Temporarily highlight mutated genes for a given individual.
-   *
-   * @param individualIndex index of the individual in the population
-   * @param mutationMask boolean mask indicating mutated gene positions
-   */
-  public void highlightMutations(int individualIndex, boolean[] mutationMask) {
-    for (int j = 0; j < mutationMask.length; j++) {
-      if (mutationMask[j]) mutationPoints.add(new Point(individualIndex, j));
+  @Override
+  public boolean wantsOperatorEvents() {
+    return true;
+  }
+
+  /** Highlight all crossovers and mutations of a generation, cleared by a single timer. */
+  @Override
+  public void generationEvolved(GeneticAlgorithm ga, OperatorEvents events) {
+    if (events == null) return;
+    int rows = events.size();
+    int length = events.getChromosomeLength();
+    int[] points = new int[rows];
+    int[][] loci = new int[rows][];
+    for (int i = 0; i < rows; i++) {
+      points[i] = events.getCrossoverPoint(i);
+      loci[i] = new int[events.getMutationCount(i)];
+      for (int k = 0; k < loci[i].length; k++) loci[i][k] = events.getMutation(i, k);
     }
+    applyEvents(points, loci, length, 1);
     repaint();
     new javax.swing.Timer(
             500,
             e -> {
-              for (int j = 0; j < mutationMask.length; j++)
-                mutationPoints.remove(new Point(individualIndex, j));
+              applyEvents(points, loci, length, -1);
               repaint();
               ((javax.swing.Timer) e.getSource()).stop();
             })
         .start();
   }
 
+  /** Add {@code delta} to the highlight counts of every recorded crossover and mutation. */
+  private void applyEvents(int[] points, int[][] loci, int length, int delta) {
+    for (int i = 0; i < points.length; i++) {
+      if (points[i] >= 0) {
+        crossoverHits = ensureRow(crossoverHits, i, length);
+        int[] counts = crossoverHits[i];
+        for (int j = points[i]; j < length; j++) counts[j] = Math.max(0, counts[j] + delta);
+      }
+      if (loci[i].length > 0) {
+        mutationHits = ensureRow(mutationHits, i, length);
+        int[] counts = mutationHits[i];
+        for (int j : loci[i]) counts[j] = Math.max(0, counts[j] + delta);
+      }
+    }
+  }
+
+  /**
+   * Temporarily highlight mutated genes for a given individual.
+   *
+   * @param individualIndex index of the individual in the population
+   * @param mutationMask boolean mask indicating mutated gene positions
+   */
+  public void highlightMutations(int individualIndex, boolean[] mutationMask) {
+    mutationHits = highlight(mutationHits, individualIndex, mutationMask);
+  }
+
   /**
    * Temporarily highlight crossover-affected genes for a given individual.
    *
@@ -93,19 +139,39 @@ public class PopulationPanel extends JPanel {
    * @param crossoverMask boolean mask indicating crossover-affected positions
    */
   public void highlightCrossover(int individualIndex, boolean[] crossoverMask) {
-    for (int j = 0; j < crossoverMask.length; j++) {
-      if (crossoverMask[j]) crossoverPoints.add(new Point(individualIndex, j));
-    }
+    crossoverHits = highlight(crossoverHits, individualIndex, crossoverMask);
+  }
+
+  /**
+   * Count a highlight for every masked gene of a row and schedule its removal.
+   *
+   * @param hits current highlight counts, grown if the row does not exist yet
+   * @param row individual index
+   * @param mask boolean mask of genes to highlight
+   * @return the (possibly grown) highlight counts
+   */
+  private int[][] highlight(int[][] hits, int row, boolean[] mask) {
+    hits = ensureRow(hits, row, mask.length);
+    int[] counts = hits[row];
+    for (int j = 0; j < mask.length; j++) if (mask[j]) counts[j]++;
     repaint();
     new javax.swing.Timer(
             500,
             e -> {
-              for (int j = 0; j < crossoverMask.length; j++)
-                crossoverPoints.remove(new Point(individualIndex, j));
+              for (int j = 0; j < mask.length; j++) if (mask[j] && counts[j] > 0) counts[j]--;
               repaint();
               ((javax.swing.Timer) e.getSource()).stop();
             })
         .start();
+    return hits;
+  }
+
+  /** Grow the highlight table so that {@code row} exists with at least {@code length} genes. */
+  private static int[][] ensureRow(int[][] hits, int row, int length) {
+    if (row >= hits.length) hits = Arrays.copyOf(hits, row + 1);
+    if (hits[row] == null) hits[row] = new int[length];
+    else if (hits[row].length < length) hits[row] = Arrays.copyOf(hits[row], length);
+    return hits;
   }
 
   /** Render the population grid and visual markers. */
@@ -115,7 +181,7 @@ public class PopulationPanel extends JPanel {
     setBackground(new Color(24, 24, 24));
     if (population == null) return;
 
-    int numCols = population[0].getChromosome().length;
+    int numCols = population[0].getLength();
     int numRows = population.length;
     int cellSize = (fixedCellSize != -1) ? fixedCellSize : 32;
 
@@ -158,28 +224,31 @@ public class PopulationPanel extends JPanel {
     g2.setFont(new Font("Consolas", Font.PLAIN, 12));
     g2.drawString("Individual", xOffset - 95, yOffset + gridH / 2 + 5);
 
+    g2.setStroke(CELL_STROKE);
     for (int i = 0; i < numRows; i++) {
-      boolean[] chromosome = population[i].getChromosome();
+      Individual ind = population[i];
+      int[] mutated = (i < mutationHits.length) ? mutationHits[i] : null;
+      int[] crossed = (i < crossoverHits.length) ? crossoverHits[i] : null;
+      float ratio = (float) ind.getFitness() / maxFitness;
+      Color geneColor = new Color(60, 120, (int) (180 * ratio));
       for (int j = 0; j < numCols; j++) {
         int x = xOffset + j * cellSize;
         int y = yOffset + i * cellSize;
 
         Color color;
-        if (mutationPoints.contains(new Point(i, j))) {
-          color = new Color(255, 80, 80);
-        } else if (crossoverPoints.contains(new Point(i, j))) {
-          color = new Color(80, 255, 120);
-        } else if (chromosome[j]) {
-          float ratio = (float) population[i].getFitness() / maxFitness;
-          color = new Color(60, 120, (int) (180 * ratio));
+        if (mutated != null && j < mutated.length && mutated[j] > 0) {
+          color = MUTATION_COLOR;
+        } else if (crossed != null && j < crossed.length && crossed[j] > 0) {
+          color = CROSSOVER_COLOR;
+        } else if (ind.getGene(j)) {
+          color = geneColor;
         } else {
-          color = new Color(60, 60, 60);
+          color = EMPTY_GENE_COLOR;
         }
 
         g2.setColor(color);
         g2.fillRect(x, y, cellSize, cellSize);
         g2.setColor(Color.BLACK);
-        g2.setStroke(new BasicStroke(1));
         g2.drawRect(x, y, cellSize, cellSize);
       }
 
@@ -200,7 +269,7 @@ public class PopulationPanel extends JPanel {
   @Override
   public Dimension getPreferredSize() {
     if (population != null && population.length > 0) {
-      int numCols = population[0].getChromosome().length;
+      int numCols = population[0].getLength();
       int numRows = population.length;
       int cellSize = (fixedCellSize != -1) ? fixedCellSize : 32;
       int gridW = cellSize * numCols + LEFT_MARGIN + RIGHT_MARGIN;
@@ -0,0 +1,100 @@
+package cli;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import ga.GeneticAlgorithm;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CommandLineRunnerTest {
+
+  @Test
+  public void testConfigFileAndArgumentsDriveARun(@TempDir Path dir) throws Exception {
+    Path config = dir.resolve("run.properties");
+    Files.writeString(config, "population=40\nlength=32\nseed=7\ngenerations=500\n");
+    Path output = dir.resolve("result.properties");
+    ByteArrayOutputStream progress = new ByteArrayOutputStream();
+
+    GeneticAlgorithm ga =
+        CommandLineRunner.run(
+            new String[] {
+              "--config",
+              config.toString(),
+              "--generations=25",
+              "--selection",
+              "tournament:2",
+              "--progress",
+              "10",
+              "--output",
+              output.toString()
+            },
+            new PrintStream(progress, true));
+
+    assertEquals(25, ga.getGeneration(), "Arguments should override the config file");
+    assertEquals(40, ga.getPopulationSize());
+    assertEquals(3, progress.toString().lines().count(), "Progress at 10, 20 and the end");
+    Properties result = new Properties();
+    try (Reader r = Files.newBufferedReader(output)) {
+      result.load(r);
+    }
+    assertEquals("25", result.getProperty("generations"));
+    assertEquals(32, result.getProperty("best").length());
+    assertEquals(ga.getBestFitnessValue(), Double.parseDouble(result.getProperty("bestFitness")));
+  }
+
+  @Test
+  public void testInvalidOptionsAreRejected() {
+    PrintStream out = new PrintStream(new ByteArrayOutputStream());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CommandLineRunner.run(new String[] {"--populaton", "10"}, out));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CommandLineRunner.run(new String[] {"--time", "soon"}, out));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CommandLineRunner.run(new String[] {"--population", "5000000000"}, out));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CommandLineRunner.run(new String[] {"--resume", "run.ckpt", "--seed", "3"}, out),
+        "Checkpointed settings cannot be overridden");
+  }
+
+  @Test
+  public void testRunnerNeverLoadsAwtOrSwing() throws Exception {
+    // Other tests load the GUI classes into this JVM, so observe a fresh one.
+    Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+    Process p =
+        new ProcessBuilder(
+                java.toString(),
+                "-Xlog:class+load=info",
+                "-cp",
+                System.getProperty("java.class.path"),
+                "cli.CommandLineRunner",
+                "--seed",
+                "1",
+                "--population",
+                "50",
+                "--length",
+                "32",
+                "--evaluations",
+                "5000")
+            .redirectErrorStream(true)
+            .start();
+    String log = new String(p.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    assertTrue(p.waitFor(60, TimeUnit.SECONDS), "An evaluation budget should end the run");
+    assertEquals(0, p.exitValue(), log);
+    assertTrue(log.contains("evaluations=5050"), "100 generations of 50 after the initial 50");
+    assertTrue(log.contains("cli.CommandLineRunner"), "Class loading should be logged");
+    assertFalse(log.contains(" java.awt."), "No AWT class may be loaded");
+    assertFalse(log.contains(" javax.swing."), "No Swing class may be loaded");
+  }
+}
@@ -0,0 +1,68 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class BitChromosomeTest {
+
+  private static boolean[] randomGenes(Random r, int length) {
+    boolean[] genes = new boolean[length];
+    for (int i = 0; i < length; i++) genes[i] = r.nextBoolean();
+    return genes;
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 5, 63, 64, 65, 130})
+  public void testRoundTripAndCardinality(int length) {
+    boolean[] genes = randomGenes(new Random(length), length);
+    BitChromosome c = BitChromosome.fromBooleans(genes);
+    assertArrayEquals(genes, c.toBooleanArray(), "Packing should preserve every gene");
+
+    int ones = 0;
+    for (boolean g : genes) if (g) ones++;
+    assertEquals(ones, c.cardinality(), "Cardinality should count set genes");
+  }
+
+  @Test
+  public void testCopyRangeMatchesPerGeneCopy() {
+    Random r = new Random(42);
+    int length = 200;
+    for (int trial = 0; trial < 200; trial++) {
+      boolean[] a = randomGenes(r, length);
+      boolean[] b = randomGenes(r, length);
+      int from = r.nextInt(length + 1);
+      int to = from + r.nextInt(length - from + 1);
+
+      BitChromosome dst = BitChromosome.fromBooleans(a);
+      dst.copyRange(BitChromosome.fromBooleans(b), from, to);
+
+      boolean[] expected = a.clone();
+      System.arraycopy(b, from, expected, from, to - from);
+      assertArrayEquals(expected, dst.toBooleanArray(), "Range [" + from + ", " + to + ")");
+    }
+  }
+
+  @Test
+  public void testSetWordMasksTail() {
+    BitChromosome c = new BitChromosome(70);
+    c.setWord(1, -1L);
+    assertEquals(6, c.cardinality(), "Bits beyond the length must be dropped");
+  }
+
+  @Test
+  public void testHammingDistanceAndFlip() {
+    BitChromosome a = new BitChromosome(100);
+    BitChromosome b = a.copy();
+    b.flip(0);
+    b.flip(64);
+    b.flip(99);
+    assertEquals(3, a.hammingDistance(b));
+    assertTrue(b.get(99));
+    b.set(99, false);
+    assertFalse(b.get(99));
+  }
+}
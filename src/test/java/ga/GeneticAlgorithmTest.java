@@ -3,7 +3,20 @@ package ga;
 import static org.junit.jupiter.api.Assertions.*;
 
 import gui.PopulationPanel;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class GeneticAlgorithmTest {
 
@@ -38,4 +51,370 @@ public class GeneticAlgorithmTest {
           0.2, ind.getMutationRate(), 1e-9, "Individuals should receive new mutation rate");
     }
   }
+
+  @Test
+  public void testHeadlessListenerReceivesOperatorEventsOnlyWhenRequested() {
+    GeneticAlgorithm ga = new GeneticAlgorithm(9, 40, 0.2, 1.0);
+    OperatorEvents[] seen = new OperatorEvents[2];
+    ga.addEvolutionListener(
+        new EvolutionListener() {
+          @Override
+          public void generationEvolved(GeneticAlgorithm g, OperatorEvents events) {
+            seen[g.getGeneration() - 1] = events;
+          }
+        });
+    ga.evolveOneGeneration();
+    assertNull(seen[0], "No listener asked for operator events, so none are recorded");
+
+    ga.evolveOneGeneration(
+        new EvolutionListener() {
+          @Override
+          public boolean wantsOperatorEvents() {
+            return true;
+          }
+        });
+    OperatorEvents events = seen[1];
+    assertNotNull(events, "Registered listeners share the events requested by the extra one");
+    assertEquals(9, events.size());
+    assertEquals(2, events.getGeneration());
+    for (int i = 0; i < events.size(); i++) {
+      assertTrue(events.getCrossoverPoint(i) >= 0, "Crossover rate 1.0 crosses every pair");
+    }
+  }
+
+  @Test
+  public void testSeededRunWithSelfAdaptiveRatesIsReproducible() {
+    // Rate 0 gives every individual its own random initial rate, which must come from the seed.
+    GeneticAlgorithm a = new GeneticAlgorithm(50, 64, 0.0, 0.7, 42L);
+    GeneticAlgorithm b = new GeneticAlgorithm(50, 64, 0.0, 0.7, 42L);
+    for (GeneticAlgorithm ga : new GeneticAlgorithm[] {a, b}) {
+      ga.run(50);
+      ga.restart();
+      ga.run(10);
+    }
+    assertEquals(a.getBestFitnessValue(), b.getBestFitnessValue());
+    assertEquals(a.getAverageMutationRate(), b.getAverageMutationRate(), 0.0);
+    Individual[] x = a.getPopulation();
+    Individual[] y = b.getPopulation();
+    for (int i = 0; i < x.length; i++) {
+      assertArrayEquals(x[i].getChromosome(), y[i].getChromosome(), "Chromosome " + i);
+      assertEquals(x[i].getMutationRate(), y[i].getMutationRate(), 0.0, "Rate " + i);
+    }
+  }
+
+  @Test
+  public void testSeededRunIsIdenticalForAnyParallelism() {
+    GeneticAlgorithm sequential = new GeneticAlgorithm(1000, 70, 0.02, 0.7, 1234L);
+    GeneticAlgorithm parallel = new GeneticAlgorithm(1000, 70, 0.02, 0.7, 1234L);
+    parallel.setParallelism(4);
+    assertEquals(4, parallel.getParallelism());
+
+    for (int g = 0; g < 5; g++) {
+      sequential.evolveOneGeneration();
+      parallel.evolveOneGeneration();
+    }
+
+    Individual[] a = sequential.getPopulation();
+    Individual[] b = parallel.getPopulation();
+    for (int i = 0; i < a.length; i++) {
+      assertArrayEquals(a[i].getChromosome(), b[i].getChromosome(), "Chromosome " + i);
+      assertEquals(a[i].getMutationRate(), b[i].getMutationRate(), 0.0, "Rate " + i);
+      assertEquals(a[i].getFitness(), b[i].getFitness(), "Fitness " + i);
+    }
+  }
+
+  @Test
+  public void testCustomFitnessFunctionIsEvaluatedInBatchesOnThePool() {
+    AtomicInteger batches = new AtomicInteger();
+    FitnessFunction leadingOnes =
+        new FitnessFunction() {
+          @Override
+          public double evaluate(Individual ind) {
+            int n = 0;
+            while (n < ind.getLength() && ind.getGene(n)) n++;
+            return n + 0.5;
+          }
+
+          @Override
+          public void evaluateAll(Individual[] batch) {
+            batches.incrementAndGet();
+            FitnessFunction.super.evaluateAll(batch);
+          }
+        };
+
+    GeneticAlgorithm ga = new GeneticAlgorithm(400, 30, 0.05, 0.5, 7L);
+    ga.setParallelism(4);
+    ga.setFitnessFunction(leadingOnes);
+    ga.evolveOneGeneration();
+
+    assertTrue(batches.get() > 2, "A parallel evaluation stage should split the generation");
+    for (Individual ind : ga.getPopulation()) {
+      assertEquals(leadingOnes.evaluate(ind), ind.getFitnessValue(), 0.0);
+    }
+    assertEquals(ga.getBestFitnessValue() % 1.0, 0.5, 1e-12, "Fractional fitness is preserved");
+  }
+
+  @Test
+  public void testFitnessCacheSkipsRepeatedChromosomesWithoutChangingResults() {
+    AtomicInteger calls = new AtomicInteger();
+    FitnessFunction oneMax = FitnessFunction.oneMax();
+    FitnessFunction counting =
+        ind -> {
+          calls.incrementAndGet();
+          return oneMax.evaluate(ind);
+        };
+
+    GeneticAlgorithm plain = new GeneticAlgorithm(200, 30, 0.001, 0.0, 99L);
+    plain.setFitnessFunction(counting);
+    GeneticAlgorithm cached = new GeneticAlgorithm(200, 30, 0.001, 0.0, 99L);
+    cached.setFitnessCache(new FitnessCache(1000));
+    cached.setFitnessFunction(counting);
+
+    for (int g = 0; g < 3; g++) plain.evolveOneGeneration();
+    calls.set(0);
+    for (int g = 0; g < 3; g++) cached.evolveOneGeneration();
+
+    assertTrue(calls.get() < 3 * 200 / 2, "Mostly unchanged children should hit the cache");
+    assertTrue(cached.getFitnessCache().getHits() > 0);
+    Individual[] a = plain.getPopulation();
+    Individual[] b = cached.getPopulation();
+    for (int i = 0; i < a.length; i++) assertEquals(a[i].getFitnessValue(), b[i].getFitnessValue());
+  }
+
+  @Test
+  public void testReplaceDuplicatesLeavesDistinctChromosomes() {
+    GeneticAlgorithm ga = new GeneticAlgorithm(100, 64, 0.001, 0.0, 5L);
+    ga.setReplaceDuplicates(true);
+    ga.evolveOneGeneration();
+
+    Set<FitnessCache.Key> keys = new HashSet<>();
+    for (Individual ind : ga.getPopulation()) {
+      assertTrue(keys.add(FitnessCache.Key.of(ind)), "Chromosomes should be unique");
+      assertEquals(ind.getLength() - countZeros(ind), ind.getFitness(), "Fresh genes are scored");
+    }
+    assertTrue(ga.getDuplicatesReplaced() > 0);
+  }
+
+  private static int countZeros(Individual ind) {
+    int zeros = 0;
+    for (int i = 0; i < ind.getLength(); i++) if (!ind.getGene(i)) zeros++;
+    return zeros;
+  }
+
+  @Test
+  public void testDecomposableFitnessIsUpdatedIncrementally() {
+    AtomicInteger fullEvaluations = new AtomicInteger();
+    DecomposableFitness weighted =
+        new DecomposableFitness() {
+          @Override
+          public double locusValue(int locus, boolean allele) {
+            return allele ? locus % 7 : 1;
+          }
+
+          @Override
+          public double evaluate(Individual ind) {
+            fullEvaluations.incrementAndGet();
+            return DecomposableFitness.super.evaluate(ind);
+          }
+        };
+
+    GeneticAlgorithm ga = new GeneticAlgorithm(60, 150, 0.05, 0.8, 3L);
+    ga.setFitnessFunction(weighted);
+    fullEvaluations.set(0);
+    for (int g = 0; g < 10; g++) ga.evolveOneGeneration();
+
+    assertEquals(0, fullEvaluations.get(), "Children should be scored from their parents");
+    for (Individual ind : ga.getPopulation()) {
+      double expected = 0;
+      for (int i = 0; i < ind.getLength(); i++) expected += weighted.locusValue(i, ind.getGene(i));
+      assertEquals(expected, ind.getFitnessValue(), 1e-9);
+    }
+  }
+
+  @Test
+  public void testDiversityFromAlleleCountsMatchesPairwiseDistance() {
+    for (int threads : new int[] {1, 3}) {
+      GeneticAlgorithm ga = new GeneticAlgorithm(301, 90, 0.1, 0.6, 21L);
+      ga.setParallelism(threads);
+      ga.setReplaceDuplicates(true);
+      for (int g = 0; g < 4; g++) ga.evolveOneGeneration();
+
+      Individual[] pop = ga.getPopulation();
+      double total = 0;
+      for (int i = 0; i < pop.length; i++) {
+        for (int j = i + 1; j < pop.length; j++) total += pop[i].hammingDistance(pop[j]);
+      }
+      double n = pop.length;
+      assertEquals(total / (n * (n - 1) / 2.0 * 90), ga.getDiversity(), 1e-12);
+
+      int ones = 0;
+      for (Individual ind : pop) if (ind.getGene(17)) ones++;
+      assertEquals(ones / n, ga.getAlleleFrequency(17), 1e-12);
+    }
+  }
+
+  @Test
+  public void testDoubleBufferedRunMatchesAndStopsAllocating() {
+    GeneticAlgorithm plain = new GeneticAlgorithm(201, 70, 0.02, 0.7, 99L);
+    GeneticAlgorithm buffered = new GeneticAlgorithm(201, 70, 0.02, 0.7, 99L);
+    buffered.setDoubleBuffered(true);
+    for (int g = 0; g < 20; g++) {
+      plain.evolveOneGeneration();
+      buffered.evolveOneGeneration();
+    }
+    Individual[] a = plain.getPopulation();
+    Individual[] b = buffered.getPopulation();
+    for (int i = 0; i < a.length; i++) {
+      assertArrayEquals(a[i].getChromosome(), b[i].getChromosome(), "Chromosome " + i);
+      assertEquals(a[i].getFitness(), b[i].getFitness(), "Fitness " + i);
+    }
+
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean threads)) return;
+    long thread = Thread.currentThread().threadId();
+    for (int g = 0; g < 2000; g++) buffered.evolveOneGeneration();
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int g = 0; g < 100; g++) buffered.evolveOneGeneration();
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+    assertTrue(allocated < 1024, "Warm generations should not allocate, got " + allocated);
+  }
+
+  @Test
+  public void testGenerationStatsMatchPopulation() {
+    GeneticAlgorithm ga = new GeneticAlgorithm(150, 40, 0, 0.7, 8L);
+    for (int g = 0; g < 5; g++) ga.evolveOneGeneration();
+    Individual[] pop = ga.getPopulation();
+    double sum = 0;
+    double min = Double.MAX_VALUE;
+    double rates = 0;
+    for (Individual ind : pop) {
+      sum += ind.getFitnessValue();
+      min = Math.min(min, ind.getFitnessValue());
+      rates += ind.getMutationRate();
+    }
+    double mean = sum / pop.length;
+    double squares = 0;
+    for (Individual ind : pop) squares += Math.pow(ind.getFitnessValue() - mean, 2);
+
+    GenerationStats stats = ga.getGenerationStats();
+    assertEquals(5, stats.generation());
+    assertEquals(mean, stats.meanFitness(), 1e-9);
+    assertEquals(min, stats.minFitness());
+    assertEquals(pop[stats.bestIndex()].getFitnessValue(), stats.maxFitness());
+    assertEquals(squares / pop.length, stats.fitnessVariance(), 1e-9);
+    assertEquals(rates / pop.length, stats.meanMutationRate(), 1e-12);
+    assertEquals(stats.maxFitness(), ga.getBestFitnessValue());
+    assertEquals(mean, ga.getAverageFitness(), 1e-9);
+  }
+
+  @Test
+  public void testHallOfFameKeepsFittestDistinctChromosomes() {
+    GeneticAlgorithm ga = new GeneticAlgorithm(60, 30, 0.02, 0.7, 4L);
+    ga.setHallOfFameSize(5);
+    double bestSeen = ga.getBestFitnessValue();
+    for (int g = 0; g < 40; g++) {
+      ga.evolveOneGeneration();
+      bestSeen = Math.max(bestSeen, ga.getBestFitnessValue());
+    }
+    Individual[] hall = ga.getHallOfFame().getIndividuals();
+    assertEquals(5, hall.length);
+    assertEquals(bestSeen, hall[0].getFitnessValue(), "The best ever should be kept");
+    for (int i = 1; i < hall.length; i++) {
+      assertTrue(hall[i - 1].getFitnessValue() >= hall[i].getFitnessValue(), "Fittest first");
+      for (int j = 0; j < i; j++) {
+        assertFalse(
+            Arrays.equals(hall[i].getChromosome(), hall[j].getChromosome()), "Entries distinct");
+      }
+    }
+  }
+
+  @Test
+  public void testRunUntilStopsAtFirstMetCondition() {
+    GeneticAlgorithm ga = new GeneticAlgorithm(80, 20, 0.02, 0.7, 6L);
+    assertEquals(7, ga.run(7));
+    assertEquals(7, ga.getGeneration());
+
+    List<GenerationStats> reports = new ArrayList<>();
+    int evolved =
+        ga.runUntil(
+            TerminationCondition.targetFitness(20).or(TerminationCondition.generations(500)),
+            10,
+            reports::add);
+    assertTrue(evolved < 500, "OneMax on 20 bits should be solved early");
+    assertEquals(20, ga.getBestFitnessValue());
+    assertEquals(evolved / 10 + ((evolved % 10 == 0) ? 0 : 1), reports.size());
+    assertEquals(ga.getGeneration(), reports.get(reports.size() - 1).generation());
+
+    assertEquals(0, ga.runUntil(TerminationCondition.targetFitness(20)), "Already met");
+    long before = ga.getEvaluations();
+    assertEquals(3, ga.runUntil(TerminationCondition.evaluationBudget(200)), "80 per generation");
+    assertEquals(before + 240, ga.getEvaluations(), "Delta-scored children should count");
+    int stagnant = ga.runUntil(TerminationCondition.stagnation(15));
+    assertEquals(15, stagnant, "Best fitness cannot improve beyond the optimum");
+  }
+
+  @Test
+  public void testCheckpointResumesSeededRunExactly(@TempDir Path dir) throws IOException {
+    GeneticAlgorithm ga = new GeneticAlgorithm(130, 75, 0, 0.7, 17L);
+    ga.restart();
+    ga.addEvolutionListener(new CheckpointListener(dir.resolve("run.ckpt"), 5));
+    ga.run(10);
+    ga.run(7);
+
+    GeneticAlgorithm resumed =
+        GeneticAlgorithm.loadCheckpoint(dir.resolve("run.ckpt"), FitnessFunction.oneMax());
+    assertEquals(15, resumed.getGeneration(), "The last checkpoint should be loaded");
+    assertEquals(ga.getSeed(), resumed.getSeed());
+    resumed.run(2);
+    Individual[] a = ga.getPopulation();
+    Individual[] b = resumed.getPopulation();
+    for (int i = 0; i < a.length; i++) {
+      assertArrayEquals(a[i].getChromosome(), b[i].getChromosome(), "Chromosome " + i);
+      assertEquals(a[i].getMutationRate(), b[i].getMutationRate(), "Rate " + i);
+      assertEquals(a[i].getFitnessValue(), b[i].getFitnessValue(), "Fitness " + i);
+    }
+    assertEquals(ga.getEvaluations(), resumed.getEvaluations());
+
+    Files.write(dir.resolve("bad.ckpt"), new byte[100]);
+    assertThrows(
+        IOException.class,
+        () -> GeneticAlgorithm.loadCheckpoint(dir.resolve("bad.ckpt"), FitnessFunction.oneMax()));
+
+    // A header claiming a huge or negative population must fail before anything is allocated.
+    byte[] valid = Files.readAllBytes(dir.resolve("run.ckpt"));
+    for (int[] sizes : new int[][] {{Integer.MAX_VALUE, Integer.MAX_VALUE}, {-5, 75}, {130, -1}}) {
+      byte[] corrupt = valid.clone();
+      ByteBuffer.wrap(corrupt, 8, 8)
+          .order(ByteOrder.LITTLE_ENDIAN)
+          .putInt(sizes[0])
+          .putInt(sizes[1]);
+      Files.write(dir.resolve("corrupt.ckpt"), corrupt);
+      assertThrows(
+          IOException.class,
+          () ->
+              GeneticAlgorithm.loadCheckpoint(
+                  dir.resolve("corrupt.ckpt"), FitnessFunction.oneMax()));
+    }
+  }
+
+  @Test
+  public void testCheckpointCanBeRewrittenAfterLoadingIt(@TempDir Path dir) throws IOException {
+    // Larger than the transfer buffer, and saved over the file it was loaded from, as with
+    // --resume run.ckpt --checkpoint run.ckpt.
+    Path file = dir.resolve("run.ckpt");
+    GeneticAlgorithm ga = new GeneticAlgorithm(20, 500_000, 0, 0.7, 3L);
+    ga.restart();
+    ga.saveCheckpoint(file);
+    GeneticAlgorithm loaded = GeneticAlgorithm.loadCheckpoint(file, FitnessFunction.oneMax());
+    loaded.saveCheckpoint(file);
+    GeneticAlgorithm reloaded = GeneticAlgorithm.loadCheckpoint(file, FitnessFunction.oneMax());
+    Individual[] a = ga.getPopulation();
+    Individual[] b = reloaded.getPopulation();
+    for (int i = 0; i < a.length; i++) {
+      assertArrayEquals(a[i].getChromosome(), b[i].getChromosome(), "Chromosome " + i);
+      assertEquals(a[i].getMutationRate(), b[i].getMutationRate(), "Rate " + i);
+      assertEquals(a[i].getFitnessValue(), b[i].getFitnessValue(), "Fitness " + i);
+    }
+    assertFalse(Files.exists(dir.resolve("run.ckpt.tmp")), "The temporary file should be renamed");
+  }
 }
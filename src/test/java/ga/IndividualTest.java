@@ -0,0 +1,92 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+public class IndividualTest {
+
+  private static boolean[] randomGenes(Random r, int length) {
+    boolean[] genes = new boolean[length];
+    for (int i = 0; i < length; i++) genes[i] = r.nextBoolean();
+    return genes;
+  }
+
+  @Test
+  public void testEveryMutatorMarksTheFitnessStale() {
+    Random r = new Random(1);
+    Individual src = new Individual(randomGenes(r, 130), 0.1);
+    boolean[] mask = new boolean[70];
+    mask[3] = true;
+    mask[69] = true;
+    List<Consumer<Individual>> mutators =
+        List.of(
+            ind -> ind.setGene(5, !ind.getGene(5)),
+            ind -> ind.flipGene(64),
+            ind -> ind.flipGenes(mask),
+            ind -> ind.copyGenes(src),
+            ind -> ind.copyRange(src, 60, 70),
+            Individual::mutateES);
+    for (int m = 0; m < mutators.size(); m++) {
+      Individual ind = new Individual(randomGenes(r, 130), 0.1);
+      ind.evaluateFitness();
+      assertTrue(ind.isEvaluated(), "Mutator " + m);
+      mutators.get(m).accept(ind);
+      assertFalse(ind.isEvaluated(), "Mutator " + m + " should mark the fitness stale");
+    }
+  }
+
+  @Test
+  public void testCopyRangeAcrossWordBoundariesMatchesPerGeneCopy() {
+    Random r = new Random(7);
+    int length = 200;
+    int[][] ranges = {{0, 200}, {63, 65}, {60, 130}, {64, 128}, {1, 199}, {100, 100}};
+    for (int[] range : ranges) {
+      boolean[] a = randomGenes(r, length);
+      boolean[] b = randomGenes(r, length);
+      Individual dst = new Individual(a, 0.1);
+      dst.copyRange(new Individual(b, 0.1), range[0], range[1]);
+      for (int i = range[0]; i < range[1]; i++) a[i] = b[i];
+      assertArrayEquals(a, dst.getChromosome(), "Range " + range[0] + ".." + range[1]);
+      for (int i = 0; i < length; i++) assertEquals(a[i], dst.getGene(i), "Gene " + i);
+    }
+  }
+
+  @Test
+  public void testFlipGenesCopyGenesAndHammingDistance() {
+    Random r = new Random(3);
+    boolean[] genes = randomGenes(r, 130);
+    Individual ind = new Individual(genes, 0.1);
+    Individual original = ind.copy();
+
+    boolean[] mask = randomGenes(r, 100);
+    int flipped = 0;
+    for (boolean m : mask) if (m) flipped++;
+    ind.flipGenes(mask);
+    for (int i = 0; i < genes.length; i++) {
+      assertEquals(genes[i] ^ (i < mask.length && mask[i]), ind.getGene(i), "Gene " + i);
+    }
+    assertEquals(flipped, ind.hammingDistance(original));
+    assertEquals(flipped, original.hammingDistance(ind));
+
+    ind.copyGenes(original);
+    assertEquals(0, ind.hammingDistance(original));
+    assertArrayEquals(genes, ind.getChromosome());
+  }
+
+  @Test
+  public void testMaskLongerThanChromosomeIsRejectedBeforeFlipping() {
+    boolean[] genes = randomGenes(new Random(5), 64);
+    Individual ind = new Individual(genes, 0.1);
+    ind.evaluateFitness();
+    boolean[] mask = new boolean[65];
+    Arrays.fill(mask, true);
+    assertThrows(IllegalArgumentException.class, () -> ind.flipGenes(mask));
+    assertArrayEquals(genes, ind.getChromosome(), "No gene should be flipped");
+    assertTrue(ind.isEvaluated(), "The fitness should stay valid");
+  }
+}
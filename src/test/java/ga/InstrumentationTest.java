@@ -0,0 +1,87 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+public class InstrumentationTest {
+
+  @Test
+  public void testHistogramPercentilesStayWithinBucketPrecision() {
+    LatencyHistogram h = new LatencyHistogram();
+    for (long v = 1; v <= 10_000; v++) h.record(v * 1000);
+    for (double p : new double[] {50, 90, 99, 100}) {
+      long exact = (long) (p * 100) * 1000;
+      long reported = h.percentile(p);
+      assertTrue(reported >= exact, p + "th percentile should be an upper bound");
+      assertTrue(reported <= exact * 1.125, p + "th percentile off by more than a bucket");
+    }
+    for (int b = 1; b < 400; b++) {
+      assertEquals(b, LatencyHistogram.bucket(LatencyHistogram.lowerBound(b)), "Bucket " + b);
+    }
+  }
+
+  @Test
+  public void testPhasesAreTimedAndPublishedOverJmx() throws Exception {
+    GeneticAlgorithm ga = new GeneticAlgorithm(200, 64, 0.01, 0.7, 5L);
+    ga.setFitnessFunction(FitnessFunction.oneMax()::evaluate);
+    Instrumentation inst = new Instrumentation();
+    ga.setInstrumentation(inst);
+    inst.registerMBean("instrumentation-test");
+    try {
+      ga.run(20);
+      assertTrue(inst.getTotalPhaseNanos(Instrumentation.Phase.BREEDING) > 0);
+      assertTrue(inst.getTotalPhaseNanos(Instrumentation.Phase.EVALUATION) > 0);
+      assertTrue(inst.getPhasePercentileNanos(Instrumentation.Phase.BREEDING, 99) > 0);
+
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName("ga:type=GeneticAlgorithm,name=\"instrumentation-test\"");
+      assertEquals(20, server.getAttribute(name, "Generation"));
+      assertEquals(ga.getBestFitnessValue(), server.getAttribute(name, "BestFitness"));
+      assertNotNull(server.getAttribute(name, "PhaseLatencyP99Micros"));
+    } finally {
+      inst.unregisterMBean();
+    }
+  }
+
+  @Test
+  public void testBreedingIsSplitByOperatorAndResetForgetsEverything() {
+    for (int threads : new int[] {1, 4}) {
+      GeneticAlgorithm ga = new GeneticAlgorithm(1000, 256, 0.01, 0.7, 5L);
+      ga.setParallelism(threads);
+      Instrumentation inst = new Instrumentation();
+      ga.setInstrumentation(inst);
+      long start = System.nanoTime();
+      ga.run(10);
+      long elapsed = System.nanoTime() - start;
+      long timed = 0;
+      for (Instrumentation.Phase p : Instrumentation.Phase.values()) {
+        assertTrue(inst.getTotalPhaseNanos(p) >= 0, p + " with " + threads + " threads");
+        timed += inst.getTotalPhaseNanos(p);
+      }
+      for (Instrumentation.Phase p :
+          new Instrumentation.Phase[] {
+            Instrumentation.Phase.SELECTION,
+            Instrumentation.Phase.CROSSOVER,
+            Instrumentation.Phase.MUTATION
+          }) {
+        assertTrue(inst.getTotalPhaseNanos(p) > 0, p + " with " + threads + " threads");
+        assertTrue(inst.getLastPhaseNanos(p) > 0, p + " with " + threads + " threads");
+      }
+      assertTrue(timed <= elapsed, "Phases are scaled to wall time with " + threads + " threads");
+      ga.setParallelism(1);
+
+      inst.reset();
+      for (Instrumentation.Phase p : Instrumentation.Phase.values()) {
+        assertEquals(0, inst.getTotalPhaseNanos(p), p + " total");
+        assertEquals(0, inst.getLastPhaseNanos(p), p + " last");
+        assertEquals(0, inst.getPhasePercentileNanos(p, 99), p + " histogram");
+      }
+      assertEquals(0, inst.getGenerationsPerSecond());
+      assertEquals(0, inst.getEvaluationsPerSecond());
+    }
+  }
+}
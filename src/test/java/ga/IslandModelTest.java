@@ -0,0 +1,40 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class IslandModelTest {
+
+  @Test
+  public void testIslandsEvolveAndExchangeMigrants() throws Exception {
+    IslandModel model = new IslandModel(4, 40, 64, 0.02, 0.7, 5L);
+    model.setTopology(IslandModel.Topology.FULLY_CONNECTED);
+    model.setMigrationInterval(5);
+    model.setMigrants(2);
+    model.evolve(50);
+
+    assertFalse(model.isRunning());
+    double best = Double.NEGATIVE_INFINITY;
+    for (int i = 0; i < model.getIslandCount(); i++) {
+      assertEquals(50, model.getIslandGeneration(i));
+      best = Math.max(best, model.getIsland(i).getBestFitnessValue());
+    }
+    assertEquals(best, model.getBestFitness(), 0.0);
+    assertTrue(model.getMigrantsSent() + model.getMigrantsDropped() > 0, "Migration should run");
+    assertTrue(model.getDiversity() >= 0 && model.getDiversity() <= 1);
+  }
+
+  @Test
+  public void testStatisticsAreReadableWhileRunning() throws Exception {
+    IslandModel model = new IslandModel(3, 30, 32, 0.02, 0.7, 6L);
+    model.setTopology(IslandModel.Topology.RANDOM);
+    model.start();
+    assertThrows(IllegalStateException.class, () -> model.setMigrants(1));
+    for (int i = 0; i < 100; i++) {
+      assertTrue(model.getAverageFitness() <= model.getBestFitness());
+    }
+    model.stop();
+    assertFalse(model.isRunning());
+  }
+}
@@ -0,0 +1,162 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class IslandNetworkTest {
+
+  @Test
+  public void testMigrantsRoundTripThroughCodec() {
+    Individual a = new Individual(130);
+    a.setGene(0, true);
+    a.setGene(129, true);
+    a.setMutationRate(0.125);
+    Individual b = new Individual(130);
+    b.setGene(64, true);
+
+    ByteBuffer frame = IslandProtocol.migrants(new Individual[] {a, b});
+    assertEquals(4 + 1 + 8 + 2 * (8 + 3 * 8), frame.remaining(), "Genes should stay packed");
+    frame.position(5);
+    Individual[] decoded = IslandProtocol.readMigrants(frame, 130);
+    assertArrayEquals(a.getChromosome(), decoded[0].getChromosome());
+    assertArrayEquals(b.getChromosome(), decoded[1].getChromosome());
+    assertEquals(0.125, decoded[0].getMutationRate());
+    assertFalse(decoded[0].isEvaluated(), "Receivers should evaluate migrants themselves");
+  }
+
+  @Test
+  public void testNodesEvolveAndMigrateOverLoopback() throws Exception {
+    int islands = 3;
+    int generations = 500;
+    try (IslandCoordinator coordinator =
+        new IslandCoordinator(islands, 100, 128, generations, 3L)) {
+      coordinator.setMigration(IslandModel.Topology.FULLY_CONNECTED, 5, 2);
+      InetSocketAddress address = coordinator.start(new InetSocketAddress("127.0.0.1", 0));
+
+      List<IslandNode> nodes = new ArrayList<>();
+      List<Thread> threads = new ArrayList<>();
+      List<Throwable> failures = new ArrayList<>();
+      for (int i = 0; i < islands; i++) {
+        IslandNode node = new IslandNode(address);
+        nodes.add(node);
+        Thread t =
+            new Thread(
+                () -> {
+                  try {
+                    node.run("127.0.0.1", 10_000);
+                  } catch (Exception e) {
+                    synchronized (failures) {
+                      failures.add(e);
+                    }
+                  }
+                });
+        threads.add(t);
+        t.start();
+      }
+      for (Thread t : threads) t.join(30_000);
+      assertTrue(failures.isEmpty(), () -> "Node failed: " + failures);
+
+      assertTrue(coordinator.awaitGeneration(generations, 10_000), "Every island should report");
+      long received = 0;
+      for (IslandNode node : nodes) {
+        assertEquals(generations, node.getIsland().getGeneration());
+        received += node.getMigrantsReceived();
+      }
+      assertTrue(received > 0, "Migrants should cross process boundaries");
+      for (int i = 0; i < islands; i++) {
+        assertEquals(generations, coordinator.getIslandStats(i).generation());
+      }
+    }
+  }
+
+  @Test
+  public void testStalledPeerDropsFramesInsteadOfBlocking() throws Exception {
+    // A peer that accepts the connection at the kernel level but never reads.
+    try (ServerSocket stalled = new ServerSocket(0);
+        MigrationTransport transport = new MigrationTransport((from, type, payload) -> {}, 4096)) {
+      transport.start();
+      FrameChannel peer =
+          transport.connect(new InetSocketAddress("127.0.0.1", stalled.getLocalPort()));
+      Individual[] migrants = {new Individual(4096)};
+
+      long start = System.nanoTime();
+      int dropped = 0;
+      for (int i = 0; i < 10_000; i++) {
+        if (!peer.enqueue(IslandProtocol.migrants(migrants))) dropped++;
+      }
+      assertTrue(dropped > 0, "Frames beyond the pending cap should be dropped");
+      assertTrue(System.nanoTime() - start < 5_000_000_000L, "Sending must not block");
+    }
+  }
+
+  @Test
+  public void testMalformedPayloadsAreRejectedBeforeAllocating() {
+    ByteBuffer negative = ByteBuffer.allocate(8).putInt(-1).putInt(64).flip();
+    assertThrows(IllegalArgumentException.class, () -> IslandProtocol.readMigrants(negative, 64));
+    ByteBuffer huge = ByteBuffer.allocate(16).putInt(Integer.MAX_VALUE).putInt(64).flip();
+    assertThrows(IllegalArgumentException.class, () -> IslandProtocol.readMigrants(huge, 64));
+    ByteBuffer frame = IslandProtocol.migrants(new Individual[] {new Individual(64)});
+    ByteBuffer foreign = frame.position(5).slice();
+    assertThrows(IllegalArgumentException.class, () -> IslandProtocol.readMigrants(foreign, 65));
+    ByteBuffer truncated = ByteBuffer.allocate(10);
+    assertThrows(IllegalArgumentException.class, () -> IslandProtocol.readAssign(truncated));
+  }
+
+  @Test
+  public void testHostileFrameOnlyClosesItsOwnChannel() throws Exception {
+    List<Individual> received = new ArrayList<>();
+    List<FrameChannel> closed = new ArrayList<>();
+    MigrationTransport.FrameHandler handler =
+        new MigrationTransport.FrameHandler() {
+          @Override
+          public void onFrame(FrameChannel from, byte type, ByteBuffer payload) {
+            for (Individual m : IslandProtocol.readMigrants(payload, 64)) {
+              synchronized (received) {
+                received.add(m);
+              }
+            }
+          }
+
+          @Override
+          public void onClosed(FrameChannel channel) {
+            synchronized (closed) {
+              closed.add(channel);
+            }
+          }
+        };
+    try (MigrationTransport receiver = new MigrationTransport(handler, 1 << 20);
+        MigrationTransport sender = new MigrationTransport((from, type, payload) -> {}, 1 << 20)) {
+      InetSocketAddress address = receiver.listen(new InetSocketAddress("127.0.0.1", 0));
+      receiver.start();
+      sender.start();
+      FrameChannel hostile = sender.connect(address);
+      hostile.enqueue(
+          ByteBuffer.allocate(13)
+              .putInt(9)
+              .put(IslandProtocol.MIGRANTS)
+              .putInt(-1)
+              .putInt(64)
+              .flip());
+      FrameChannel honest = sender.connect(address);
+      honest.enqueue(IslandProtocol.migrants(new Individual[] {new Individual(64)}));
+
+      long deadline = System.nanoTime() + 10_000_000_000L;
+      while (System.nanoTime() < deadline) {
+        synchronized (received) {
+          synchronized (closed) {
+            if (received.size() == 1 && closed.size() == 1) break;
+          }
+        }
+        Thread.sleep(10);
+      }
+      assertEquals(1, received.size(), "The honest peer should still be served");
+      assertEquals(1, closed.size(), "Only the hostile peer should be dropped");
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class MigrationQueueTest {
+
+  @Test
+  public void testFullQueueRejectsAndPollsInOrder() {
+    MigrationQueue q = new MigrationQueue(3);
+    assertEquals(4, q.capacity(), "Capacity should round up to a power of two");
+    Individual[] items = new Individual[5];
+    for (int i = 0; i < items.length; i++) items[i] = new Individual(8);
+
+    for (int i = 0; i < 4; i++) assertTrue(q.offer(items[i]));
+    assertFalse(q.offer(items[4]), "A full queue should drop instead of blocking");
+    for (int i = 0; i < 4; i++) assertSame(items[i], q.poll());
+    assertNull(q.poll());
+    assertTrue(q.offer(items[4]), "Polled slots should be reusable");
+  }
+
+  @Test
+  public void testConcurrentProducersLoseNothingAcceptedOrDeliverTwice() throws Exception {
+    MigrationQueue q = new MigrationQueue(64);
+    int producers = 4;
+    int perProducer = 5000;
+    AtomicInteger accepted = new AtomicInteger();
+    Thread[] threads = new Thread[producers];
+    for (int p = 0; p < producers; p++) {
+      threads[p] =
+          new Thread(
+              () -> {
+                for (int i = 0; i < perProducer; i++)
+                  if (q.offer(new Individual(1))) accepted.incrementAndGet();
+              });
+      threads[p].start();
+    }
+
+    Set<Individual> received = new HashSet<>();
+    boolean done = false;
+    while (!done) {
+      done = true;
+      for (Thread t : threads) done &= !t.isAlive();
+      for (Individual m = q.poll(); m != null; m = q.poll()) {
+        assertTrue(received.add(m), "Each migrant should be delivered once");
+      }
+    }
+    assertEquals(accepted.get(), received.size(), "Every accepted migrant should arrive");
+  }
+}
@@ -0,0 +1,48 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class MutationSamplerTest {
+
+  @ParameterizedTest
+  @ValueSource(doubles = {0.001, 0.05, 0.5})
+  public void testFlipFrequencyPerLocusMatchesRate(double rate) {
+    int length = 200;
+    int trials = 20000;
+    int[] hits = new int[length];
+    SplitMix64 r = new SplitMix64(11);
+    double logNoFlip = MutationSampler.logNoFlip(rate);
+    for (int t = 0; t < trials; t++) {
+      for (int i = MutationSampler.next(r, logNoFlip, 0, length);
+          i < length;
+          i = MutationSampler.next(r, logNoFlip, i + 1, length)) {
+        hits[i]++;
+      }
+    }
+
+    long total = 0;
+    for (int h : hits) total += h;
+    double expected = rate * length * trials;
+    assertEquals(expected, total, 5 * Math.sqrt(expected) + 1, "Total flips");
+    double firstHalf = 0;
+    for (int i = 0; i < length / 2; i++) firstHalf += hits[i];
+    assertEquals(0.5, firstHalf / Math.max(1, total), 0.05, "Flips should be spread evenly");
+  }
+
+  @ParameterizedTest
+  @ValueSource(doubles = {1.0, 3.0})
+  public void testRateOfOneFlipsEveryGene(double rate) {
+    SplitMix64 r = new SplitMix64(1);
+    double logNoFlip = MutationSampler.logNoFlip(rate);
+    int count = 0;
+    for (int i = MutationSampler.next(r, logNoFlip, 0, 70);
+        i < 70;
+        i = MutationSampler.next(r, logNoFlip, i + 1, 70)) {
+      assertEquals(count++, i);
+    }
+    assertEquals(70, count);
+  }
+}
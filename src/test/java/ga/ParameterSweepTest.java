@@ -0,0 +1,144 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ParameterSweepTest {
+
+  private static ParameterSweep sweep() {
+    return sweep(48, 11L);
+  }
+
+  private static ParameterSweep sweep(int chromosomeLength, long seed) {
+    List<ParameterSweep.Cell> cells =
+        ParameterSweep.grid(new int[] {20, 40}, new double[] {0.005, 0.02}, new double[] {0.7});
+    ParameterSweep sweep =
+        new ParameterSweep(
+            cells, 3, chromosomeLength, seed, () -> TerminationCondition.generations(30));
+    sweep.setTargetFitness(40);
+    return sweep;
+  }
+
+  /** Results in a canonical order, without the timing column. */
+  private static List<String> canonical(Path file) throws Exception {
+    return ParameterSweep.readResults(file).stream()
+        .sorted(
+            Comparator.comparingInt(ParameterSweep.Result::cell)
+                .thenComparingInt(ParameterSweep.Result::replicate))
+        .map(
+            r ->
+                r.cell()
+                    + "/"
+                    + r.replicate()
+                    + "/"
+                    + r.seed()
+                    + "/"
+                    + r.bestFitness()
+                    + "/"
+                    + r.generations()
+                    + "/"
+                    + r.generationsToTarget()
+                    + "/"
+                    + r.evaluations())
+        .toList();
+  }
+
+  @Test
+  public void testSweepRunsEveryCellAndReplicate(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("sweep.csv");
+    ParameterSweep sweep = sweep();
+    assertEquals(12, sweep.run(file));
+    assertEquals(0, sweep.run(file), "A finished sweep should have nothing left to run");
+
+    List<ParameterSweep.Result> results = ParameterSweep.readResults(file);
+    assertEquals(12, results.size());
+    for (ParameterSweep.Result r : results) {
+      assertEquals(30, r.generations());
+      assertEquals(sweep.getCells().get(r.cell()), r.parameters());
+      assertEquals(31L * r.parameters().populationSize(), r.evaluations(), "Initial plus 30");
+    }
+  }
+
+  @Test
+  public void testInterruptedSweepResumesToTheSameResults(@TempDir Path dir) throws Exception {
+    Path full = dir.resolve("full.csv");
+    ParameterSweep sequential = sweep();
+    sequential.setParallelism(1);
+    sequential.run(full);
+
+    // Keep the header and four runs, plus a line cut off mid-write.
+    List<String> lines = Files.readAllLines(full, StandardCharsets.UTF_8);
+    Path partial = dir.resolve("partial.csv");
+    Files.write(partial, lines.subList(0, 5), StandardCharsets.UTF_8);
+    Files.writeString(
+        partial, lines.get(5).substring(0, 7), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+    assertEquals(8, sweep().run(partial), "Only the missing runs should execute");
+    assertEquals(canonical(full), canonical(partial));
+  }
+
+  @Test
+  public void testSelfAdaptiveCellsResumeToTheSameResults(@TempDir Path dir) throws Exception {
+    // Rate 0 draws per-individual initial rates, which must come from the run seed as well.
+    List<ParameterSweep.Cell> cells =
+        ParameterSweep.grid(new int[] {30}, new double[] {0, 0.01}, new double[] {0.7});
+    Path full = dir.resolve("full.csv");
+    new ParameterSweep(cells, 4, 64, 5L, () -> TerminationCondition.generations(40)).run(full);
+
+    List<String> lines = Files.readAllLines(full, StandardCharsets.UTF_8);
+    Path partial = dir.resolve("partial.csv");
+    Files.write(partial, lines.subList(0, 3), StandardCharsets.UTF_8);
+    ParameterSweep resumed =
+        new ParameterSweep(cells, 4, 64, 5L, () -> TerminationCondition.generations(40));
+    assertEquals(6, resumed.run(partial));
+    assertEquals(canonical(full), canonical(partial));
+  }
+
+  @Test
+  public void testStoppedSweepResumesToTheSameResults(@TempDir Path dir) throws Exception {
+    FitnessFunction plain = FitnessFunction.oneMax()::evaluate;
+    Path full = dir.resolve("full.csv");
+    ParameterSweep uninterrupted = sweep();
+    uninterrupted.setFitnessFunction(plain);
+    uninterrupted.run(full);
+
+    // Stop from inside the runs after 6000 of the 11,520 calls. Four runs in flight hold at most
+    // 4 * 1280 of them, so some runs have finished and others are abandoned.
+    Path stopped = dir.resolve("stopped.csv");
+    ParameterSweep first = sweep();
+    AtomicInteger calls = new AtomicInteger();
+    first.setFitnessFunction(
+        ind -> {
+          if (calls.incrementAndGet() == 6000) first.stop();
+          return plain.evaluate(ind);
+        });
+    first.setParallelism(4);
+    int executed = first.run(stopped);
+    assertTrue(executed > 0 && executed < 12, "Stop should leave part of the sweep: " + executed);
+    assertEquals(executed, ParameterSweep.readResults(stopped).size());
+
+    ParameterSweep second = sweep();
+    second.setFitnessFunction(plain);
+    second.setParallelism(4);
+    assertEquals(12 - executed, second.run(stopped), "Only the abandoned runs should execute");
+    assertEquals(canonical(full), canonical(stopped));
+  }
+
+  @Test
+  public void testResumeRejectsADifferentSweep(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("sweep.csv");
+    sweep().run(file);
+    assertThrows(IOException.class, () -> sweep(48, 12L).run(file), "Different master seed");
+    assertThrows(IOException.class, () -> sweep(64, 11L).run(file), "Different length");
+  }
+}
@@ -0,0 +1,50 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class PopulationStoreTest {
+
+  @Test
+  public void testViewsDoNotOverlapNeighbouringSlots() {
+    PopulationStore store = new PopulationStore(3, 70);
+    Individual middle = store.get(1);
+    for (int i = 0; i < 70; i++) middle.setGene(i, true);
+
+    assertEquals(0, store.get(0).bits().cardinality(), "Slot before should be untouched");
+    assertEquals(70, middle.bits().cardinality(), "Every gene of the slot should be set");
+    assertEquals(0, store.get(2).bits().cardinality(), "Slot after should be untouched");
+    assertSame(middle, store.get(1), "The same view should be returned on every call");
+  }
+
+  @Test
+  public void testViewAttributesLiveInStoreArrays() {
+    PopulationStore store = new PopulationStore(4, 10);
+    store.get(2).setFitness(7.5);
+    store.get(3).setMutationRate(0.25);
+
+    assertEquals(7.5, store.getFitness(2));
+    assertTrue(store.isEvaluated(2));
+    assertEquals(0.25, store.getMutationRate(3));
+    assertEquals(2, store.bestIndex());
+    assertEquals(7.5 / 4, store.meanFitness(), 1e-12);
+
+    store.get(2).flipGene(0);
+    assertFalse(store.isEvaluated(2), "Changing genes should invalidate the slot's fitness");
+  }
+
+  @Test
+  public void testCopyOfViewIsIndependent() {
+    PopulationStore store = new PopulationStore(2, 10);
+    Individual view = store.get(0);
+    view.setGene(3, true);
+    view.setFitness(1);
+
+    Individual copy = view.copy();
+    copy.setGene(4, true);
+    assertTrue(copy.getGene(3));
+    assertFalse(view.getGene(4), "Copies should not write through to the store");
+    assertEquals(1, view.getFitness());
+  }
+}
@@ -0,0 +1,60 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RunLoggerTest {
+
+  @Test
+  public void testCsvLogHasOneLinePerGeneration(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("run.csv");
+    GeneticAlgorithm ga = new GeneticAlgorithm(50, 32, 0.02, 0.7, 2L);
+    try (RunLogger logger = new RunLogger(file, RunLogger.Format.CSV, 1024)) {
+      ga.addEvolutionListener(logger);
+      ga.run(25);
+      ga.removeEvolutionListener(logger);
+    }
+    List<String> lines = Files.readAllLines(file);
+    assertEquals(26, lines.size());
+    assertTrue(lines.get(0).startsWith("generation,"));
+    String[] last = lines.get(25).split(",");
+    assertEquals("25", last[0]);
+    assertEquals(ga.getBestFitnessValue(), Double.parseDouble(last[3]));
+    assertEquals(ga.getDiversity(), Double.parseDouble(last[6]));
+  }
+
+  @Test
+  public void testBinaryLogCountsDroppedRecords(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("run.bin");
+    GeneticAlgorithm ga = new GeneticAlgorithm(20, 16, 0.02, 0.7, 2L);
+    RunLogger logger = new RunLogger(file, RunLogger.Format.BINARY, 4);
+    // Far more generations than the ring holds, produced faster than a 1 ms idle writer drains.
+    for (int g = 0; g < 2000; g++) {
+      ga.evolveOneGeneration();
+      logger.generationEvolved(ga, null);
+    }
+    logger.close();
+    assertEquals(2000, logger.getWritten() + logger.getDropped());
+
+    ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+    assertEquals(0x47414c47, data.getInt());
+    assertEquals(1, data.getInt());
+    assertEquals(8, data.getInt());
+    assertEquals(logger.getWritten() * 64, data.remaining());
+    long previous = 0;
+    while (data.hasRemaining()) {
+      long generation = data.getLong();
+      assertTrue(generation > previous, "Records should stay in order");
+      previous = generation;
+      data.position(data.position() + 56);
+    }
+  }
+}
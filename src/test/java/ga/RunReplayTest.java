@@ -0,0 +1,88 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RunReplayTest {
+
+  /** Listener that keeps the chromosomes and crossover points of a few generations. */
+  private static final class Snapshots implements EvolutionListener {
+    final Map<Integer, boolean[][]> chromosomes = new HashMap<>();
+    final Map<Integer, int[]> crossovers = new HashMap<>();
+
+    @Override
+    public boolean wantsOperatorEvents() {
+      return true;
+    }
+
+    @Override
+    public void generationEvolved(GeneticAlgorithm ga, OperatorEvents events) {
+      Individual[] pop = ga.getPopulation();
+      boolean[][] genes = new boolean[pop.length][];
+      int[] points = new int[pop.length];
+      for (int i = 0; i < pop.length; i++) {
+        genes[i] = pop[i].getChromosome();
+        points[i] = events.getCrossoverPoint(i);
+      }
+      chromosomes.put(ga.getGeneration(), genes);
+      crossovers.put(ga.getGeneration(), points);
+    }
+  }
+
+  @Test
+  public void testSeekAndStreamReproduceRecordedGenerations(@TempDir Path dir) throws IOException {
+    Path file = dir.resolve("run.garc");
+    GeneticAlgorithm ga = new GeneticAlgorithm(41, 100, 0.03, 0.7, 12L);
+    Snapshots expected = new Snapshots();
+    ga.addEvolutionListener(expected);
+    boolean[] initial = ga.getPopulation()[7].getChromosome();
+    try (RunRecorder recorder = new RunRecorder(file, 8)) {
+      recorder.capture(ga);
+      ga.addEvolutionListener(recorder);
+      ga.run(30);
+      // Immigrants change the population between frames; the deltas must still decode exactly.
+      ga.immigrate(new Individual[] {new Individual(100)});
+      ga.run(30);
+    }
+
+    for (boolean deleteIndex : new boolean[] {false, true}) {
+      if (deleteIndex) Files.delete(RunRecorder.indexFile(file));
+      try (RunReplay replay = new RunReplay(file)) {
+        assertTrue(replay.seek(0));
+        assertNull(replay.getEvents(), "The captured initial population has no events");
+        assertArrayEquals(initial, replay.getChromosome(7));
+
+        for (int target : new int[] {45, 17, 31, 60}) {
+          assertTrue(replay.seek(target));
+          assertEquals(target, replay.getGeneration());
+          assertPopulation(expected, replay, target);
+        }
+        assertFalse(replay.next(), "Generation 60 is the last frame");
+
+        assertTrue(replay.seek(20));
+        for (int g = 21; g <= 26; g++) {
+          assertTrue(replay.next());
+          assertPopulation(expected, replay, g);
+        }
+      }
+    }
+  }
+
+  private static void assertPopulation(Snapshots expected, RunReplay replay, int generation) {
+    boolean[][] genes = expected.chromosomes.get(generation);
+    assertEquals(genes.length, replay.getPopulationSize());
+    for (int i = 0; i < genes.length; i++) {
+      assertArrayEquals(genes[i], replay.getChromosome(i), "Generation " + generation + " #" + i);
+      int point = expected.crossovers.get(generation)[i];
+      assertEquals(point, replay.getEvents().getCrossoverPoint(i));
+      assertTrue(replay.getEvents().getFirstParent(i) >= 0);
+    }
+  }
+}
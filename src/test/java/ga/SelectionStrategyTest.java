@@ -0,0 +1,136 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+public class SelectionStrategyTest {
+
+  private static PopulationStore storeWithFitness(double... fitness) {
+    PopulationStore store = new PopulationStore(fitness.length, 8);
+    for (int i = 0; i < fitness.length; i++) store.setFitness(i, fitness[i]);
+    return store;
+  }
+
+  @Test
+  public void testUniversalSamplingStaysWithinOneOfExpectedCount() {
+    double[] fitness = {1, 2, 3, 4, 0, 10};
+    PopulationStore store = storeWithFitness(fitness);
+    StochasticUniversalSampling sus = new StochasticUniversalSampling();
+    int draws = 40;
+    sus.prepare(store, draws, new SplitMix64(5));
+
+    int[] copies = new int[fitness.length];
+    for (int d = 0; d < draws; d++) copies[sus.select(null, d)]++;
+    for (int i = 0; i < fitness.length; i++) {
+      double expected = draws * fitness[i] / 20;
+      assertTrue(Math.abs(copies[i] - expected) < 1, "Slot " + i + " drew " + copies[i]);
+    }
+  }
+
+  @Test
+  public void testAliasRouletteMatchesFitnessProportions() {
+    PopulationStore store = storeWithFitness(-1, 0, 1, 3);
+    RouletteSelection roulette = new RouletteSelection();
+    roulette.prepare(store, 0, null);
+
+    SplitMix64 r = new SplitMix64(11);
+    int[] copies = new int[4];
+    int draws = 200_000;
+    for (int d = 0; d < draws; d++) copies[roulette.select(r, d)]++;
+    // Shifted weights are 0, 1, 2 and 4.
+    assertEquals(0, copies[0], "The least fit individual should get weight zero");
+    assertEquals(1 / 7.0, copies[1] / (double) draws, 0.01);
+    assertEquals(2 / 7.0, copies[2] / (double) draws, 0.01);
+    assertEquals(4 / 7.0, copies[3] / (double) draws, 0.01);
+  }
+
+  @Test
+  public void testRankSelectionFavoursTopRanks() {
+    SplitMix64 r = new SplitMix64(3);
+    double[] fitness = new double[500];
+    for (int i = 0; i < fitness.length; i++) fitness[i] = r.nextInt(50);
+    PopulationStore store = storeWithFitness(fitness);
+    Integer[] sorted = IntStream.range(0, fitness.length).boxed().toArray(Integer[]::new);
+    Arrays.sort(sorted, Comparator.comparingDouble(i -> -fitness[i]));
+
+    RankSelection linear = RankSelection.linear(2);
+    int draws = 2000;
+    linear.prepare(store, draws, new SplitMix64(9));
+    int[] copies = new int[fitness.length];
+    for (int d = 0; d < draws; d++) copies[linear.select(null, d)]++;
+    int worstRankCopies = 0;
+    for (int i = 0; i < fitness.length; i++) {
+      if (fitness[i] == fitness[sorted[sorted.length - 1]]) worstRankCopies += copies[i];
+    }
+    int bestRankCopies = 0;
+    for (int i = 0; i < fitness.length; i++) {
+      if (fitness[i] == fitness[sorted[0]]) bestRankCopies += copies[i];
+    }
+    assertTrue(bestRankCopies > worstRankCopies, "Better ranks should be drawn more often");
+
+    RankSelection steep = RankSelection.exponential(0.01);
+    steep.prepare(store, draws, new SplitMix64(9));
+    for (int d = 0; d < draws; d++) {
+      int slot = steep.select(null, d);
+      assertTrue(fitness[slot] >= fitness[sorted[2]], "Steep pressure should keep the top ranks");
+    }
+  }
+
+  @Test
+  public void testStrategiesEvolveDeterministicallyAcrossParallelism() {
+    SelectionStrategy[][] pairs = {
+      {new StochasticUniversalSampling(), new StochasticUniversalSampling()},
+      {new RouletteSelection(), new RouletteSelection()},
+      {RankSelection.exponential(0.98), RankSelection.exponential(0.98)},
+      {new TournamentSelection(5), new TournamentSelection(5)}
+    };
+    for (SelectionStrategy[] pair : pairs) {
+      GeneticAlgorithm sequential = new GeneticAlgorithm(300, 64, 0.01, 0.7, 21L);
+      GeneticAlgorithm parallel = new GeneticAlgorithm(300, 64, 0.01, 0.7, 21L);
+      sequential.setSelectionStrategy(pair[0]);
+      parallel.setSelectionStrategy(pair[1]);
+      parallel.setParallelism(4);
+      double start = sequential.getAverageFitness();
+      for (int g = 0; g < 30; g++) {
+        sequential.evolveOneGeneration();
+        parallel.evolveOneGeneration();
+      }
+      String name = pair[0].getClass().getSimpleName();
+      assertEquals(sequential.getAverageFitness(), parallel.getAverageFitness(), name);
+      assertTrue(sequential.getAverageFitness() > start, name + " should improve the population");
+      parallel.setParallelism(1);
+    }
+  }
+
+  @Test
+  public void testRankSelectionHandlesConvergedPopulations() {
+    // With ties on one side of the pivot this took seconds; a three-way split takes milliseconds.
+    int n = 200_000;
+    PopulationStore flat = storeWithFitness(new double[n]);
+    RankSelection linear = RankSelection.linear(2);
+    long start = System.nanoTime();
+    linear.prepare(flat, n, new SplitMix64(4));
+    assertTrue(System.nanoTime() - start < 2_000_000_000L, "Equal fitness must not go quadratic");
+    for (int d = 0; d < n; d++) assertTrue(linear.select(null, d) < n);
+
+    // A few distinct levels: every draw must come from the level its rank falls in.
+    double[] fitness = new double[5000];
+    SplitMix64 r = new SplitMix64(8);
+    for (int i = 0; i < fitness.length; i++) fitness[i] = r.nextInt(3);
+    double[] ranked = fitness.clone();
+    Arrays.sort(ranked);
+    PopulationStore levels = storeWithFitness(fitness);
+    RankSelection steep = RankSelection.exponential(0.999);
+    steep.prepare(levels, 4000, new SplitMix64(6));
+    int[] drawn = new int[3];
+    for (int d = 0; d < 4000; d++) drawn[(int) fitness[steep.select(null, d)]]++;
+    int top = 0;
+    while (top < ranked.length && ranked[ranked.length - 1 - top] == 2) top++;
+    // Exponential weights give the top level about 1 - 0.999^top of the draws.
+    assertEquals(1 - Math.pow(0.999, top), drawn[2] / 4000.0, 0.05);
+  }
+}
@@ -0,0 +1,35 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+public class SteadyStateEvolutionTest {
+
+  @ParameterizedTest
+  @EnumSource(SteadyStateEvolution.Replacement.class)
+  public void testChildrenAreInsertedAndCountsStayConsistent(
+      SteadyStateEvolution.Replacement replacement) throws Exception {
+    GeneticAlgorithm ga = new GeneticAlgorithm(100, 64, 0.02, 0.7, 17L);
+    double before = ga.getAverageFitness();
+    SteadyStateEvolution pipeline = new SteadyStateEvolution(ga, 3);
+    pipeline.setReplacement(replacement);
+    pipeline.evolve(5000);
+
+    assertFalse(pipeline.isRunning());
+    assertTrue(pipeline.getChildrenReplaced() >= 5000);
+    assertTrue(pipeline.getChildrenProduced() >= pipeline.getChildrenReplaced());
+    assertTrue(ga.getAverageFitness() > before, "Selection pressure should raise the mean");
+    assertEquals(ga.getAverageFitness(), pipeline.getAverageFitness(), 1e-6);
+
+    double totalDistance = 0;
+    Individual[] pop = ga.getPopulation();
+    for (int i = 0; i < pop.length; i++) {
+      assertEquals(pop[i].bits().cardinality(), pop[i].getFitness(), "Fitness of " + i);
+      for (int j = i + 1; j < pop.length; j++) totalDistance += pop[i].hammingDistance(pop[j]);
+    }
+    double pairs = pop.length * (pop.length - 1) / 2.0;
+    assertEquals(totalDistance / pairs / 64, ga.getDiversity(), 1e-9, "Allele counts");
+  }
+}
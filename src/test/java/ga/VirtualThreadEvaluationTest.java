@@ -0,0 +1,171 @@
+package ga;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadEvaluationTest {
+
+  @Test
+  public void testBlockingEvaluationsRunConcurrentlyWithinTheLimit() {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger peak = new AtomicInteger();
+    FitnessFunction slow =
+        ind -> {
+          peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep(20);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            running.decrementAndGet();
+          }
+          return ind.bits().cardinality();
+        };
+    GeneticAlgorithm ga = new GeneticAlgorithm(200, 32, 0.02, 0.7, 8L);
+    try (VirtualThreadEvaluation vte = new VirtualThreadEvaluation(50, null, 0)) {
+      ga.setVirtualThreadEvaluation(vte);
+      long start = System.nanoTime();
+      ga.setFitnessFunction(slow);
+      long millis = (System.nanoTime() - start) / 1_000_000;
+
+      assertEquals(200, vte.getEvaluations());
+      assertTrue(peak.get() <= 50, "Concurrency must respect the limit, was " + peak.get());
+      assertTrue(peak.get() > 1, "Evaluations should overlap");
+      assertTrue(millis < 200 * 20, "Blocking evaluations should not run one by one");
+      for (Individual ind : ga.getPopulation()) {
+        assertEquals(ind.bits().cardinality(), ind.getFitness());
+      }
+    }
+  }
+
+  @Test
+  public void testTimedOutEvaluationsGetThePenalty() {
+    FitnessFunction hangsOnOdd =
+        ind -> {
+          if (ind.bits().cardinality() % 2 == 1) {
+            try {
+              Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          return 1;
+        };
+    GeneticAlgorithm ga = new GeneticAlgorithm(50, 32, 0.2, 0.7, 9L);
+    ga.evolveOneGeneration();
+    try (VirtualThreadEvaluation vte =
+        new VirtualThreadEvaluation(100, Duration.ofMillis(50), -1)) {
+      ga.setVirtualThreadEvaluation(vte);
+      ga.setFitnessCache(new FitnessCache(100));
+      ga.setFitnessFunction(hangsOnOdd);
+      int odd = 0;
+      for (Individual ind : ga.getPopulation()) {
+        boolean isOdd = ind.bits().cardinality() % 2 == 1;
+        if (isOdd) odd++;
+        assertEquals(isOdd ? -1 : 1, ind.getFitness());
+      }
+      assertTrue(odd > 0);
+      assertEquals(odd, vte.getTimeouts());
+      assertTrue(ga.getFitnessCache().size() < 50, "Penalties should not be cached");
+    }
+  }
+
+  @Test
+  public void testCancelAbandonsTheGeneration() throws Exception {
+    AtomicBoolean hang = new AtomicBoolean();
+    FitnessFunction hangsOnDemand =
+        ind -> {
+          if (hang.get()) {
+            try {
+              Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          return ind.bits().cardinality();
+        };
+    GeneticAlgorithm ga = new GeneticAlgorithm(20, 16, 0.02, 0.7, 10L);
+    try (VirtualThreadEvaluation vte = new VirtualThreadEvaluation(4, null, 0)) {
+      ga.setVirtualThreadEvaluation(vte);
+      ga.setFitnessFunction(hangsOnDemand);
+      boolean[] firstGenes = ga.getPopulation()[0].getChromosome();
+
+      hang.set(true);
+      Thread canceller =
+          new Thread(
+              () -> {
+                try {
+                  Thread.sleep(100);
+                } catch (InterruptedException e) {
+                  return;
+                }
+                vte.cancel();
+              });
+      canceller.start();
+      assertThrows(CancellationException.class, ga::evolveOneGeneration);
+      canceller.join();
+      assertEquals(0, ga.getGeneration(), "An abandoned generation must not be committed");
+      assertArrayEquals(firstGenes, ga.getPopulation()[0].getChromosome());
+    }
+  }
+
+  @Test
+  public void testAbandonedEvaluationsCannotWriteIntoReusedSlots() throws Exception {
+    AtomicBoolean stuck = new AtomicBoolean();
+    CountDownLatch release = new CountDownLatch(1);
+    FitnessFunction ignoresInterrupts =
+        ind -> {
+          if (!stuck.get()) return ind.bits().cardinality();
+          while (true) {
+            try {
+              release.await();
+              return -1000;
+            } catch (InterruptedException e) {
+              // Deliberately ignored, like a fitness function stuck in uninterruptible I/O.
+            }
+          }
+        };
+    GeneticAlgorithm ga = new GeneticAlgorithm(20, 16, 0.02, 0.7, 12L);
+    ga.setDoubleBuffered(true);
+    try (VirtualThreadEvaluation vte = new VirtualThreadEvaluation(100, null, 0)) {
+      ga.setVirtualThreadEvaluation(vte);
+      ga.setFitnessFunction(ignoresInterrupts);
+      ga.evolveOneGeneration();
+
+      stuck.set(true);
+      Thread canceller =
+          new Thread(
+              () -> {
+                try {
+                  Thread.sleep(100);
+                } catch (InterruptedException e) {
+                  return;
+                }
+                vte.cancel();
+              });
+      canceller.start();
+      assertThrows(CancellationException.class, ga::evolveOneGeneration);
+      canceller.join();
+
+      // The next generation reuses the abandoned buffer while the stale evaluations still run.
+      stuck.set(false);
+      ga.evolveOneGeneration();
+      long before = vte.getEvaluations();
+      release.countDown();
+      long deadline = System.nanoTime() + 10_000_000_000L;
+      while (vte.getEvaluations() < before + 20 && System.nanoTime() < deadline) Thread.sleep(5);
+      assertEquals(before + 20, vte.getEvaluations(), "The stale evaluations should finish");
+
+      for (Individual ind : ga.getPopulation()) {
+        assertEquals(
+            ind.bits().cardinality(), ind.getFitnessValue(), "Late scores must be dropped");
+      }
+    }
+  }
+}